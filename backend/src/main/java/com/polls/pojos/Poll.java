@@ -3,11 +3,16 @@ package com.polls.pojos;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -22,6 +27,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "poll")
 @Table(name = "polls")
 @Getter
 @Setter
@@ -46,18 +53,26 @@ public class Poll {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Maintained by single UPDATE statements in VoteServiceImpl, never by
+    // entity flushes: a stale loaded copy must not overwrite newer counts.
+    // Not read back either: the cached entity's value may be behind.
+    @Column(name = "vote_count", nullable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private Long voteCount = 0L;
+
     @PrePersist
     public void onCreate() {
         this.createdAt = LocalDateTime.now();
     }
 
     // Many polls created by one user
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
-    // One poll has many options
+    // One poll has many options (fixed at creation, so the id list is cached)
     @OneToMany(mappedBy = "poll", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "poll-options")
     private List<PollOption> options;
 
     // One poll has many votes (ignored in JSON)
@@ -3,9 +3,14 @@ package com.polls.pojos;
 import jakarta.persistence.*;
 import lombok.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "poll-option")
 @Table(name = "poll_options")
 @Data
 @NoArgsConstructor
@@ -19,8 +24,13 @@ public class PollOption {
     @Column(nullable = false)
     private String optionText;
 
+    // Denormalized count, see Poll.voteCount
+    @Column(name = "vote_count", nullable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private Long voteCount = 0L;
+
     // Many options belong to one poll
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "poll_id", nullable = false)
     private Poll poll;
 
@@ -6,6 +6,8 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+// Hash-partitioned on poll_id (V3 migration); the primary key is really
+// (poll_id, id), so queries and deletes should always carry poll_id
 @Entity
 @Table(
     name = "votes",
@@ -32,17 +34,17 @@ public class Vote {
 
 
     // Many votes belong to one poll
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "poll_id", nullable = false)
     private Poll poll;
 
     // Many votes select one option
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "option_id", nullable = false)
     private PollOption option;
 
     // Many votes are cast by one user
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 }
@@ -0,0 +1,142 @@
+package com.polls.pojos.archive;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.polls.pojos.event.PollEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Freezes the results of closed polls into poll_results_summary.
+// Each tick takes the oldest closed, unarchived polls and archives each one
+// in its own transaction: the votes are counted once into summary rows,
+// polls.vote_count is set to that final total, the raw votes are optionally
+// moved into votes_archive, and the poll is stamped archived_at. From then
+// on tallies of the poll are seeded from the summary (see
+// PollOptionRepository.findVoteCounts) and its votes are never counted
+// again. Work is picked up from the database rather than from CLOSED
+// events, so polls closed while no node was running are archived too.
+@Component
+public class PollResultsArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(PollResultsArchiver.class);
+
+    private static final String PENDING_SQL = """
+            SELECT id FROM polls
+            WHERE closed AND archived_at IS NULL
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    // SKIP LOCKED: another node is archiving it, or a vote write that raced
+    // the close still holds the row; either way it is retried next tick.
+    // A poll closed early keeps its close time; a swept one closed at expiry.
+    private static final String LOCK_SQL = """
+            SELECT LEAST(expiry_time, ?) FROM polls
+            WHERE id = ? AND closed AND archived_at IS NULL
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String SUMMARY_SQL = """
+            INSERT INTO poll_results_summary (poll_id, option_id, vote_count, total_votes, closed_at)
+            SELECT o.poll_id, o.id, COUNT(v.id), SUM(COUNT(v.id)) OVER (), ?
+            FROM poll_options o
+            LEFT JOIN votes v ON v.poll_id = ? AND v.option_id = o.id
+            WHERE o.poll_id = ?
+            GROUP BY o.poll_id, o.id
+            """;
+
+    private static final String MOVE_VOTES_SQL = """
+            WITH moved AS (
+                DELETE FROM votes WHERE poll_id = ?
+                RETURNING id, option_id, user_id, voted_at
+            )
+            INSERT INTO votes_archive (poll_id, archived_at, vote_ids, option_ids, user_ids, voted_at)
+            SELECT ?, ?, array_agg(id ORDER BY id), array_agg(option_id ORDER BY id),
+                   array_agg(user_id ORDER BY id), array_agg(voted_at ORDER BY id)
+            FROM moved
+            HAVING COUNT(*) > 0
+            """;
+
+    private static final String MARK_SQL = """
+            UPDATE polls SET archived_at = ?,
+                vote_count = (SELECT COALESCE(SUM(vote_count), 0)
+                              FROM poll_results_summary WHERE poll_id = ?)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int batchSize;
+    private final boolean moveVotes;
+
+    private final Counter archivedCounter;
+
+    public PollResultsArchiver(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${polls.archive.batch-size:100}") int batchSize,
+            @Value("${polls.archive.move-votes:false}") boolean moveVotes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.moveVotes = moveVotes;
+        this.archivedCounter = Counter.builder("polls.archive.archived").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${polls.archive.interval-ms:5000}")
+    public void tick() {
+        List<Long> pollIds = jdbcTemplate.queryForList(PENDING_SQL, Long.class, batchSize);
+
+        int archived = 0;
+        for (Long pollId : pollIds) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> archive(pollId)))) {
+                    archived++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to archive poll {}", pollId, e);
+            }
+        }
+
+        archivedCounter.increment(archived);
+        if (archived > 0) {
+            log.debug("Archived {} closed polls", archived);
+        }
+    }
+
+    private boolean archive(Long pollId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Timestamp> closedAt = jdbcTemplate.queryForList(LOCK_SQL, Timestamp.class, now, pollId);
+        if (closedAt.isEmpty()) {
+            return false;
+        }
+
+        jdbcTemplate.update(SUMMARY_SQL, closedAt.get(0), pollId, pollId);
+        if (moveVotes) {
+            jdbcTemplate.update(MOVE_VOTES_SQL, pollId, pollId, now);
+        }
+        jdbcTemplate.update(MARK_SQL, now, pollId, pollId);
+
+        // After commit: caches and in-memory tallies reload from the summary
+        eventPublisher.publishEvent(new PollEvent(PollEvent.Type.ARCHIVED, pollId));
+        return true;
+    }
+}
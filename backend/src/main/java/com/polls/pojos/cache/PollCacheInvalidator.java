@@ -0,0 +1,61 @@
+package com.polls.pojos.cache;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.polls.pojos.Poll;
+import com.polls.pojos.dto.PollResponseDTO;
+import com.polls.pojos.dto.PollResultResponseDTO;
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Bumps the poll version and drops cached reads once a change has committed
+@Component
+public class PollCacheInvalidator {
+
+    private final PollVersions versions;
+    private final VersionedPollCache<PollResponseDTO> pollCache;
+    private final VersionedPollCache<PollResultResponseDTO> pollResultsCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public PollCacheInvalidator(PollVersions versions,
+            VersionedPollCache<PollResponseDTO> pollCache,
+            VersionedPollCache<PollResultResponseDTO> pollResultsCache,
+            EntityManagerFactory entityManagerFactory) {
+        this.versions = versions;
+        this.pollCache = pollCache;
+        this.pollResultsCache = pollResultsCache;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // Runs right after VoteTallyEngine (HIGHEST_PRECEDENCE) and before every
+    // other after-commit listener. The tally must be current before the
+    // version moves: a results load in between would otherwise store the
+    // old counts under the new version. Anything reacting to the same event
+    // later (e.g. the live results stream) already sees the new version.
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener
+    public void onVote(VoteEvent event) {
+        invalidate(event.getPollId());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @TransactionalEventListener
+    public void onPollChange(PollEvent event) {
+        // Closes (user or expiry sweep) and expiry updates are UPDATEs that
+        // bypass the entity layer, so the cached Poll is dropped by hand
+        entityManagerFactory.getCache().evict(Poll.class, event.getPollId());
+        invalidate(event.getPollId());
+    }
+
+    // Also called for changes committed on other nodes (RemoteChangeConsumer)
+    public void invalidate(Long pollId) {
+        versions.bump(pollId);
+        pollCache.evict(pollId);
+        pollResultsCache.evict(pollId);
+    }
+}
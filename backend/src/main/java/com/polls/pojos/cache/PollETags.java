@@ -0,0 +1,37 @@
+package com.polls.pojos.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.stereotype.Component;
+
+// Weak validators for poll reads, derived from PollVersions instead of the
+// response body, so a matching If-None-Match is answered before any query
+// runs. Versions are per-process counters; the node tag keeps a restarted
+// (or different) node from ever matching a tag it did not issue.
+@Component
+public class PollETags {
+
+    private final String node = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final PollVersions versions;
+
+    public PollETags(PollVersions versions) {
+        this.versions = versions;
+    }
+
+    // The version must be read before the body is loaded: a write that lands
+    // in between then produces a tag that is already stale, never a fresh tag
+    // on old data
+    public String poll(Long pollId, Boolean hasVoted) {
+        String voted = hasVoted == null ? "" : (hasVoted ? "-v" : "-n");
+        return tag("p", pollId) + voted + "\"";
+    }
+
+    public String results(Long pollId) {
+        return tag("r", pollId) + "\"";
+    }
+
+    private String tag(String kind, Long pollId) {
+        return "W/\"" + kind + pollId + "-" + versions.current(pollId) + "-" + node;
+    }
+}
@@ -0,0 +1,30 @@
+package com.polls.pojos.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+
+// Monotonic change counter per poll, bumped after every committed change.
+// Versions live in a fixed array of stripes indexed by poll id, so memory
+// stays constant however many polls exist. Two polls sharing a stripe only
+// cause an extra cache miss, never a stale hit.
+@Component
+public class PollVersions {
+
+    private static final int STRIPES = 1 << 16;
+
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    public long current(Long pollId) {
+        return versions.get(stripe(pollId));
+    }
+
+    public long bump(Long pollId) {
+        return versions.incrementAndGet(stripe(pollId));
+    }
+
+    private static int stripe(Long pollId) {
+        long h = pollId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 48) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.polls.pojos.cache;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Per-poll read cache whose entries are tagged with the poll's version at the
+// time the value was loaded. An entry is only served while that version is
+// still current, so a load that raced with a vote can never be served after
+// the vote's invalidation, even if it is stored afterwards.
+public class VersionedPollCache<V> {
+
+    private final boolean enabled;
+    private final PollVersions versions;
+    private final Cache<Long, Versioned<V>> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public VersionedPollCache(String name, boolean enabled, long maxWeight, Duration ttl,
+            ToIntFunction<V> weigher, PollVersions versions, MeterRegistry meterRegistry) {
+
+        this.enabled = enabled;
+        this.versions = versions;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long pollId, Versioned<V> entry) -> weigher.applyAsInt(entry.value))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        this.hits = Counter.builder("polls.cache.gets")
+                .tag("cache", name).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("polls.cache.gets")
+                .tag("cache", name).tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("polls.cache.evictions", cache, c -> c.stats().evictionCount())
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("polls.cache.size", cache, Cache::estimatedSize)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public V get(Long pollId, Supplier<V> loader) {
+
+        if (!enabled) {
+            return loader.get();
+        }
+
+        // Read the version before loading: if the poll changes mid-load the
+        // stored entry is already outdated and will be treated as a miss
+        long version = versions.current(pollId);
+
+        Versioned<V> entry = cache.getIfPresent(pollId);
+        if (entry != null && entry.version == version) {
+            hits.increment();
+            return entry.value;
+        }
+
+        misses.increment();
+        V value = loader.get();
+        cache.put(pollId, new Versioned<>(version, value));
+        return value;
+    }
+
+    public void evict(Long pollId) {
+        cache.invalidate(pollId);
+    }
+
+    private record Versioned<V>(long version, V value) {
+    }
+}
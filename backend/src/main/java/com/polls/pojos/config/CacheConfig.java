@@ -0,0 +1,45 @@
+package com.polls.pojos.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.polls.pojos.cache.PollVersions;
+import com.polls.pojos.cache.VersionedPollCache;
+import com.polls.pojos.dto.PollResponseDTO;
+import com.polls.pojos.dto.PollResultResponseDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Read caches in front of GET /api/polls/{id} and GET /api/polls/{id}/results.
+// Weights are 1 + number of options, so max-weight roughly bounds the number
+// of option rows held in memory.
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public VersionedPollCache<PollResponseDTO> pollCache(
+            PollVersions versions,
+            MeterRegistry meterRegistry,
+            @Value("${polls.cache.poll.enabled:true}") boolean enabled,
+            @Value("${polls.cache.poll.max-weight:200000}") long maxWeight,
+            @Value("${polls.cache.poll.ttl:10m}") Duration ttl) {
+
+        return new VersionedPollCache<>("poll", enabled, maxWeight, ttl,
+                dto -> 1 + dto.getOptions().size(), versions, meterRegistry);
+    }
+
+    @Bean
+    public VersionedPollCache<PollResultResponseDTO> pollResultsCache(
+            PollVersions versions,
+            MeterRegistry meterRegistry,
+            @Value("${polls.cache.results.enabled:true}") boolean enabled,
+            @Value("${polls.cache.results.max-weight:200000}") long maxWeight,
+            @Value("${polls.cache.results.ttl:10m}") Duration ttl) {
+
+        return new VersionedPollCache<>("results", enabled, maxWeight, ttl,
+                dto -> 1 + dto.getResults().size(), versions, meterRegistry);
+    }
+}
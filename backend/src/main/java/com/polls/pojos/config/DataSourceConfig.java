@@ -0,0 +1,80 @@
+package com.polls.pojos.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.flyway.autoconfigure.FlywayDataSource;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.polls.pojos.datasource.ReadWriteRoutingDataSource;
+import com.polls.pojos.datasource.ReplicaStickiness;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Two Hikari pools behind one routing DataSource. The primary pool is the
+// usual spring.datasource.* configuration; the replica pool reads
+// polls.datasource.replica.* and falls back to the primary's URL and
+// credentials, so an unconfigured replica is simply a second pool on the
+// same database.
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    // Migrations run straight on the primary pool, not through the routing proxy
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryPool(DataSourceProperties primaryDataSourceProperties) {
+        HikariDataSource pool = primaryDataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    @ConfigurationProperties("polls.datasource.replica.hikari")
+    public HikariDataSource replicaPool(DataSourceProperties primaryDataSourceProperties,
+            @Value("${polls.datasource.replica.url:}") String url,
+            @Value("${polls.datasource.replica.username:}") String username,
+            @Value("${polls.datasource.replica.password:}") String password) {
+
+        HikariDataSource pool = primaryDataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        if (StringUtils.hasText(url)) {
+            pool.setJdbcUrl(url);
+        }
+        if (StringUtils.hasText(username)) {
+            pool.setUsername(username);
+        }
+        if (StringUtils.hasText(password)) {
+            pool.setPassword(password);
+        }
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryPool") DataSource primaryPool,
+            @Qualifier("replicaPool") DataSource replicaPool,
+            ReplicaStickiness stickiness) {
+
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryPool, replicaPool, stickiness));
+    }
+}
@@ -0,0 +1,73 @@
+package com.polls.pojos.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.polls.pojos.ratelimit.RateLimiter;
+import com.polls.pojos.ratelimit.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Token-bucket limits: capacity is the burst, rate the sustained permits/s
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter loginIpLimiter(MeterRegistry meterRegistry,
+            @Value("${polls.ratelimit.login.ip.capacity:20}") int capacity,
+            @Value("${polls.ratelimit.login.ip.per-second:0.5}") double perSecond) {
+        return new TokenBucketRateLimiter("login-ip", capacity, perSecond, meterRegistry);
+    }
+
+    @Bean
+    public RateLimiter loginEmailLimiter(MeterRegistry meterRegistry,
+            @Value("${polls.ratelimit.login.email.capacity:5}") int capacity,
+            @Value("${polls.ratelimit.login.email.per-second:0.1}") double perSecond) {
+        return new TokenBucketRateLimiter("login-email", capacity, perSecond, meterRegistry);
+    }
+
+    @Bean
+    public RateLimiter voteUserLimiter(MeterRegistry meterRegistry,
+            @Value("${polls.ratelimit.vote.user.capacity:10}") int capacity,
+            @Value("${polls.ratelimit.vote.user.per-second:1}") double perSecond) {
+        return new TokenBucketRateLimiter("vote-user", capacity, perSecond, meterRegistry);
+    }
+
+    @Bean
+    public RateLimiter voteIpLimiter(MeterRegistry meterRegistry,
+            @Value("${polls.ratelimit.vote.ip.capacity:60}") int capacity,
+            @Value("${polls.ratelimit.vote.ip.per-second:10}") double perSecond) {
+        return new TokenBucketRateLimiter("vote-ip", capacity, perSecond, meterRegistry);
+    }
+
+    // Caps the write rate any single poll can put on the database
+    @Bean
+    public RateLimiter votePollLimiter(MeterRegistry meterRegistry,
+            @Value("${polls.ratelimit.vote.poll.capacity:5000}") int capacity,
+            @Value("${polls.ratelimit.vote.poll.per-second:2000}") double perSecond) {
+        return new TokenBucketRateLimiter("vote-poll", capacity, perSecond, meterRegistry);
+    }
+
+    @Bean
+    public RateLimitJanitor rateLimitJanitor(List<RateLimiter> limiters) {
+        return new RateLimitJanitor(limiters);
+    }
+
+    public static class RateLimitJanitor {
+
+        private final List<RateLimiter> limiters;
+
+        RateLimitJanitor(List<RateLimiter> limiters) {
+            this.limiters = limiters;
+        }
+
+        @Scheduled(fixedDelayString = "${polls.ratelimit.eviction-interval-ms:60000}")
+        public void evictIdle() {
+            limiters.forEach(RateLimiter::evictIdle);
+        }
+    }
+}
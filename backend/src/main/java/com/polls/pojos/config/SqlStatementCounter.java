@@ -0,0 +1,85 @@
+package com.polls.pojos.config;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Diagnostics: logs how many SQL statements each request sent, per endpoint
+// pattern. Off by default (polls.sql.count-statements=true to enable); used
+// to compare fetch plans and cache settings.
+//
+// Counts what Hibernate prepares on the request thread, from the outermost
+// filter, so the JWT filter's lookups are included. JdbcTemplate statements
+// and work done on other threads (batched ingestion, the outbox relay) are
+// not seen.
+@Configuration
+@ConditionalOnProperty(name = "polls.sql.count-statements", havingValue = "true")
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementCounter.class);
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Bean
+    public FilterRegistrationBean<CountingFilter> sqlStatementCountingFilter() {
+        FilterRegistrationBean<CountingFilter> registration = new FilterRegistrationBean<>(new CountingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    static class CountingFilter extends OncePerRequestFilter {
+
+        // An async reply is logged once per dispatch, each with its own count
+        @Override
+        protected boolean shouldNotFilterAsyncDispatch() {
+            return false;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                FilterChain chain) throws ServletException, IOException {
+            int[] count = new int[1];
+            COUNT.set(count);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                COUNT.remove();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                log.info("{} {} -> {} SQL statements (status {}{})", request.getMethod(),
+                        pattern != null ? pattern : request.getRequestURI(), count[0], response.getStatus(),
+                        request.isAsyncStarted() ? ", async reply pending" : "");
+            }
+        }
+    }
+}
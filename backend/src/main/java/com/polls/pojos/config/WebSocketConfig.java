@@ -0,0 +1,30 @@
+package com.polls.pojos.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.polls.pojos.security.JwtHandshakeInterceptor;
+import com.polls.pojos.stream.PollUpdateBroadcaster;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final PollUpdateBroadcaster pollUpdateBroadcaster;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
+    public WebSocketConfig(PollUpdateBroadcaster pollUpdateBroadcaster,
+            JwtHandshakeInterceptor jwtHandshakeInterceptor) {
+        this.pollUpdateBroadcaster = pollUpdateBroadcaster;
+        this.jwtHandshakeInterceptor = jwtHandshakeInterceptor;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(pollUpdateBroadcaster, "/ws/polls")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOriginPatterns(SecurityConfig.ALLOWED_ORIGIN_PATTERNS.toArray(String[]::new));
+    }
+}
@@ -1,12 +1,19 @@
 package com.polls.pojos.controller;
 
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.polls.pojos.dto.LoginRequestDTO;
 import com.polls.pojos.dto.SignupRequestDTO;
+import com.polls.pojos.ratelimit.RateLimiter;
+import com.polls.pojos.security.PasswordWorkExecutor;
 import com.polls.pojos.service.AuthService;
 
 @RestController
@@ -15,21 +22,45 @@ public class AuthController {
 
     private final AuthService authService;
 
-    public AuthController(AuthService authService) {
+    // BCrypt runs here, never on the request thread
+    private final PasswordWorkExecutor passwordWorkExecutor;
+
+    private final RateLimiter loginIpLimiter;
+
+    private final RateLimiter loginEmailLimiter;
+
+    public AuthController(AuthService authService,
+            PasswordWorkExecutor passwordWorkExecutor,
+            @Qualifier("loginIpLimiter") RateLimiter loginIpLimiter,
+            @Qualifier("loginEmailLimiter") RateLimiter loginEmailLimiter) {
         this.authService = authService;
+        this.passwordWorkExecutor = passwordWorkExecutor;
+        this.loginIpLimiter = loginIpLimiter;
+        this.loginEmailLimiter = loginEmailLimiter;
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(
-            @Valid @RequestBody SignupRequestDTO request) {
+    public CompletableFuture<ResponseEntity<?>> signup(
+            @Valid @RequestBody SignupRequestDTO request,
+            HttpServletRequest httpRequest) {
+
+        loginIpLimiter.acquire(httpRequest.getRemoteAddr());
 
-        return ResponseEntity.ok(authService.signup(request));
+        return passwordWorkExecutor.submit(() -> ResponseEntity.ok(authService.signup(request)));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(
-            @Valid @RequestBody LoginRequestDTO request) {
+    public CompletableFuture<ResponseEntity<?>> login(
+            @Valid @RequestBody LoginRequestDTO request,
+            HttpServletRequest httpRequest) {
+
+        // Cheap checks first: a stuffing burst is turned away before it
+        // reaches the hashing pool
+        loginIpLimiter.acquire(httpRequest.getRemoteAddr());
+        if (request.getEmail() != null) {
+            loginEmailLimiter.acquire(request.getEmail().trim().toLowerCase(Locale.ROOT));
+        }
 
-        return ResponseEntity.ok(authService.login(request));
+        return passwordWorkExecutor.submit(() -> ResponseEntity.ok(authService.login(request)));
     }
 }
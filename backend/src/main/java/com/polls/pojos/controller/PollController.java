@@ -2,6 +2,8 @@ package com.polls.pojos.controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,21 +14,36 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.polls.pojos.cache.PollETags;
 import com.polls.pojos.dto.CreatePollRequestDTO;
 import com.polls.pojos.dto.MyPollDTO;
+import com.polls.pojos.dto.MyPollPageDTO;
+import com.polls.pojos.dto.PollFeedPageDTO;
 import com.polls.pojos.dto.PollExpiryDTO;
 import com.polls.pojos.dto.PollResponseDTO;
 import com.polls.pojos.service.PollService;
+import com.polls.pojos.tally.VoterRegistry;
 
 @RestController
 @RequestMapping("/api/polls")
 public class PollController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PollService pollService;
 
-    public PollController(PollService pollService) {
+    private final PollETags pollETags;
+
+    private final VoterRegistry voterRegistry;
+
+    public PollController(PollService pollService,
+            PollETags pollETags,
+            VoterRegistry voterRegistry) {
         this.pollService = pollService;
+        this.pollETags = pollETags;
+        this.voterRegistry = voterRegistry;
     }
 
     // CREATE POLL (POST)
@@ -42,20 +59,62 @@ public class PollController {
     @GetMapping("/{pollId}")
     public ResponseEntity<PollResponseDTO> getPollById(
             @PathVariable Long pollId,
-            @RequestParam(required = false) Long userId) {
-        return ResponseEntity.ok(pollService.getPollById(pollId, userId));
+            @RequestParam(required = false) Long userId,
+            WebRequest request) {
+
+        // hasVoted is part of the body, so it is part of the tag
+        Boolean hasVoted = userId != null ? voterRegistry.hasVoted(pollId, userId) : null;
+        String etag = pollETags.poll(pollId, hasVoted);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(pollService.getPollById(pollId, userId));
     }
 
-    // GET MY POLLS (DTO)
+    // GET MY POLLS (DTO, keyset paginated once size or cursor is given)
     @GetMapping("/my")
-    public ResponseEntity<List<MyPollDTO>> getMyPolls(@RequestParam Long userId) {
-        return ResponseEntity.ok(pollService.getPollsByUser(userId));
+    public ResponseEntity<List<MyPollDTO>> getMyPolls(
+            @RequestParam Long userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return toPageResponse(pollService.getPollsByUser(userId, cursor, size));
     }
 
-    // GET VOTED POLLS (DTO)
+    // GET VOTED POLLS (DTO, keyset paginated once size or cursor is given)
     @GetMapping("/voted")
-    public ResponseEntity<List<MyPollDTO>> getVotedPolls(@RequestParam Long userId) {
-        return ResponseEntity.ok(pollService.getPollsVotedByUser(userId));
+    public ResponseEntity<List<MyPollDTO>> getVotedPolls(
+            @RequestParam Long userId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return toPageResponse(pollService.getPollsVotedByUser(userId, cursor, size));
+    }
+
+    // The body stays a plain list for existing clients; the next cursor
+    // travels in a header
+    private ResponseEntity<List<MyPollDTO>> toPageResponse(MyPollPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getItems());
+    }
+
+    // POLL FEED (keyset paginated, newest first)
+    // status: ALL | OPEN | CLOSED | EXPIRING, cursor: nextCursor of the previous page
+    @GetMapping("/feed")
+    public ResponseEntity<PollFeedPageDTO> getPollFeed(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long createdBy,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(pollService.getPollFeed(status, createdBy, cursor, size));
     }
 
     // GET ALL POLLS (PUBLIC)
@@ -1,5 +1,13 @@
 package com.polls.pojos.controller;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,13 +17,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.polls.pojos.Poll;
 import com.polls.pojos.Vote;
 
+import com.polls.pojos.cache.PollETags;
+import com.polls.pojos.datasource.ReplicaStickiness;
 import com.polls.pojos.dto.PollResultResponseDTO;
 import com.polls.pojos.dto.VoteResponseDTO;
+import com.polls.pojos.exception.BusinessException;
+import com.polls.pojos.ingestion.VoteIngestionPipeline;
+import com.polls.pojos.ratelimit.VoteRateLimits;
 import com.polls.pojos.service.VoteService;
+import com.polls.pojos.stream.PollResultsStream;
+import com.polls.pojos.tally.VoterRegistry;
 
 @RestController
 @RequestMapping("/api/polls")
@@ -23,15 +40,44 @@ public class VoteController {
 
     private final VoteService voteService;
 
-    public VoteController(VoteService voteService) {
+    // Present only when polls.vote.ingestion.mode=batched
+    private final Optional<VoteIngestionPipeline> ingestionPipeline;
+
+    private final VoterRegistry voterRegistry;
+
+    private final PollETags pollETags;
+
+    private final PollResultsStream pollResultsStream;
+
+    private final ReplicaStickiness replicaStickiness;
+
+    private final VoteRateLimits voteRateLimits;
+
+    public VoteController(VoteService voteService,
+            Optional<VoteIngestionPipeline> ingestionPipeline,
+            VoterRegistry voterRegistry,
+            PollETags pollETags,
+            PollResultsStream pollResultsStream,
+            ReplicaStickiness replicaStickiness,
+            VoteRateLimits voteRateLimits) {
         this.voteService = voteService;
+        this.ingestionPipeline = ingestionPipeline;
+        this.voterRegistry = voterRegistry;
+        this.pollETags = pollETags;
+        this.pollResultsStream = pollResultsStream;
+        this.replicaStickiness = replicaStickiness;
+        this.voteRateLimits = voteRateLimits;
     }
 
     // CAST VOTE
     @PostMapping("/{pollId}/vote")
-    public ResponseEntity<VoteResponseDTO> castVote(
+    public CompletableFuture<ResponseEntity<VoteResponseDTO>> castVote(
             @PathVariable Long pollId,
-            @RequestBody Vote vote) {
+            @RequestBody Vote vote,
+            HttpServletRequest request) {
+
+        // 429 before anything touches the registry or the database
+        voteRateLimits.acquire(pollId, request.getRemoteAddr());
 
         // 🔒 enforce pollId from URL
         if (vote.getPoll() == null) {
@@ -39,15 +85,55 @@ public class VoteController {
         }
         vote.getPoll().setId(pollId);
 
-        return ResponseEntity.ok(voteService.castVote(vote));
+        Long userId = vote.getUser() != null ? vote.getUser().getId() : null;
+
+        // Repeat voters are turned away from memory, before a transaction
+        // (and a pooled connection) is opened
+        if (userId != null && voterRegistry.hasVoted(pollId, userId)) {
+            throw new BusinessException("User has already voted");
+        }
+
+        // Keeps this user's reads on the primary until replicas have the vote
+        replicaStickiness.markWrite();
+
+        if (ingestionPipeline.isPresent()) {
+            Long optionId = vote.getOption() != null ? vote.getOption().getId() : null;
+
+            return ingestionPipeline.get()
+                    .submit(pollId, optionId, userId)
+                    .thenApply(ResponseEntity::ok);
+        }
+
+        return CompletableFuture.completedFuture(ResponseEntity.ok(voteService.castVote(vote)));
     }
 
     // GET POLL RESULTS
     @GetMapping("/{pollId}/results")
     public ResponseEntity<PollResultResponseDTO> getPollResults(
+            @PathVariable Long pollId,
+            WebRequest request) {
+
+        // 304 without touching the service when the client's copy is current
+        String etag = pollETags.results(pollId);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(voteService.getPollResults(pollId));
+    }
+
+    // LIVE POLL RESULTS (Server-Sent Events)
+    @GetMapping(path = "/{pollId}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPollResults(
             @PathVariable Long pollId) {
 
-        return ResponseEntity.ok(voteService.getPollResults(pollId));
+        return pollResultsStream.subscribe(pollId);
     }
 
     @DeleteMapping("/{pollId}/vote")
@@ -55,6 +141,7 @@ public class VoteController {
             @PathVariable Long pollId,
             @RequestParam Long userId) {
 
+        replicaStickiness.markWrite();
         voteService.deleteVote(pollId, userId);
         return ResponseEntity.ok("Vote deleted successfully");
     }
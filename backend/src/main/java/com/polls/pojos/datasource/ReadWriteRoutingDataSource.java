@@ -0,0 +1,58 @@
+package com.polls.pojos.datasource;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends read-only transactions to the replica pool and everything else to
+// the primary. Must sit behind a LazyConnectionDataSourceProxy: the lookup
+// key is then resolved at the first statement, after the transaction's
+// read-only flag is known, and a transaction that runs no statement (a
+// cache hit) never takes a connection at all.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final ReplicaStickiness stickiness;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaStickiness stickiness) {
+        this.stickiness = stickiness;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // Runs a read on the primary regardless of the transaction's flag. Used
+    // by loaders whose result outlives the request (shared caches), so a
+    // lagging replica cannot be cached under a newer version.
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (Boolean.TRUE.equals(PINNED.get())) {
+            return read.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+
+        if (!readOnly || Boolean.TRUE.equals(PINNED.get()) || stickiness.isSticky()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,48 @@
+package com.polls.pojos.datasource;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Read-your-writes: for a short window after a user writes (casts or deletes
+// a vote), that user's read-only transactions stay on the primary, so a
+// replica that has not caught up yet cannot hide their own vote.
+@Component
+public class ReplicaStickiness {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaStickiness(
+            @Value("${polls.datasource.replica.sticky-window:5s}") Duration window,
+            @Value("${polls.datasource.replica.sticky-max-users:100000}") long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void markWrite() {
+        String user = currentUser();
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    public boolean isSticky() {
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                ? authentication.getName()
+                : null;
+    }
+}
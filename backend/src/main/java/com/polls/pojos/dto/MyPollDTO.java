@@ -5,6 +5,20 @@ public class MyPollDTO {
     private Long id;
     private String question;
 
+    public MyPollDTO() {
+    }
+
+    // Used by JPQL constructor expressions in PollRepository
+    public MyPollDTO(Long id, String question, Long voteCount,
+            java.time.LocalDateTime expiryTime, Boolean closed, java.time.LocalDateTime createdAt) {
+        this.id = id;
+        this.question = question;
+        this.voteCount = voteCount;
+        this.expiryTime = expiryTime;
+        this.closed = closed;
+        this.createdAt = createdAt;
+    }
+
     public Long getId() {
         return id;
     }
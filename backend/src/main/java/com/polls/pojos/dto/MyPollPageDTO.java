@@ -0,0 +1,27 @@
+package com.polls.pojos.dto;
+
+import java.util.List;
+
+public class MyPollPageDTO {
+
+    private List<MyPollDTO> items;
+
+    // Pass back as ?cursor= to get the next page; null on the last page
+    private Long nextCursor;
+
+    public List<MyPollDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<MyPollDTO> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.polls.pojos.dto;
+
+import java.util.List;
+
+public class PollFeedPageDTO {
+
+    private List<PollResponseDTO> items;
+
+    // Pass back as ?cursor= to get the next page; null on the last page
+    private Long nextCursor;
+
+    public List<PollResponseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PollResponseDTO> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.polls.pojos.event;
+
+import java.time.LocalDateTime;
+
+// Published when a poll changes outside of voting
+public class PollEvent {
+
+    public enum Type {
+        CREATED,
+        CLOSED,
+        EXPIRY_UPDATED,
+        DELETED,
+        // Results frozen into poll_results_summary after the close
+        ARCHIVED
+    }
+
+    private final Type type;
+    private final Long pollId;
+
+    // Set for CREATED and EXPIRY_UPDATED
+    private final LocalDateTime expiryTime;
+
+    public PollEvent(Type type, Long pollId) {
+        this(type, pollId, null);
+    }
+
+    public PollEvent(Type type, Long pollId, LocalDateTime expiryTime) {
+        this.type = type;
+        this.pollId = pollId;
+        this.expiryTime = expiryTime;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getPollId() {
+        return pollId;
+    }
+
+    public LocalDateTime getExpiryTime() {
+        return expiryTime;
+    }
+}
@@ -0,0 +1,48 @@
+package com.polls.pojos.event;
+
+// Published by VoteServiceImpl inside the vote transaction.
+// Listeners that keep in-memory state use @TransactionalEventListener so they
+// only see votes that actually committed.
+public class VoteEvent {
+
+    public enum Type {
+        CAST,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long pollId;
+    private final Long optionId;
+    private final Long userId;
+
+    public VoteEvent(Type type, Long pollId, Long optionId, Long userId) {
+        this.type = type;
+        this.pollId = pollId;
+        this.optionId = optionId;
+        this.userId = userId;
+    }
+
+    public static VoteEvent cast(Long pollId, Long optionId, Long userId) {
+        return new VoteEvent(Type.CAST, pollId, optionId, userId);
+    }
+
+    public static VoteEvent deleted(Long pollId, Long optionId, Long userId) {
+        return new VoteEvent(Type.DELETED, pollId, optionId, userId);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getPollId() {
+        return pollId;
+    }
+
+    public Long getOptionId() {
+        return optionId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,183 @@
+package com.polls.pojos.expiry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.repository.PollRepository;
+import com.polls.pojos.repository.projection.PollExpiryView;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Closes polls when their expiryTime passes, so reads never have to write.
+// A priority queue holds the expiries due within the next horizon; the tick
+// only touches the database when the head of the queue is due, then closes
+// every expired poll in batched UPDATEs and publishes a CLOSED event per
+// poll (cache invalidation, cached Poll entities included, live pushes).
+// The queue is refilled from the database every refill interval and fed by
+// create/expiry-update events, so it never holds more than the next
+// max-queued expiries.
+@Component
+public class PollExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PollExpiryScheduler.class);
+
+    private record Due(LocalDateTime expiryTime, Long pollId) {
+    }
+
+    private final PollRepository pollRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration horizon;
+    private final int batchSize;
+    private final int maxQueued;
+
+    private final PriorityQueue<Due> queue = new PriorityQueue<>(
+            (a, b) -> a.expiryTime().compareTo(b.expiryTime()));
+
+    // Latest expiry the queue is known to cover; later ones wait for a refill
+    private LocalDateTime coveredUntil = LocalDateTime.MIN;
+
+    // Non-null while a refill query runs: events committed meanwhile may be
+    // missing from its result, so they are replayed onto the new queue
+    private List<Due> arrivedDuringRefill;
+
+    private final Counter closedCounter;
+
+    public PollExpiryScheduler(PollRepository pollRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${polls.expiry.horizon:10m}") Duration horizon,
+            @Value("${polls.expiry.batch-size:500}") int batchSize,
+            @Value("${polls.expiry.max-queued:10000}") int maxQueued) {
+        this.pollRepository = pollRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.maxQueued = maxQueued;
+        this.closedCounter = Counter.builder("polls.expiry.closed").register(meterRegistry);
+    }
+
+    // ================= QUEUE =================
+
+    // Also closes whatever expired while no node was running
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        sweep();
+        refill();
+    }
+
+    @Scheduled(fixedDelayString = "${polls.expiry.refill-interval-ms:60000}",
+            initialDelayString = "${polls.expiry.refill-interval-ms:60000}")
+    public void refill() {
+        LocalDateTime until = LocalDateTime.now().plus(horizon);
+        List<Due> arrived = new ArrayList<>();
+        synchronized (queue) {
+            arrivedDuringRefill = arrived;
+        }
+
+        List<PollExpiryView> upcoming;
+        try {
+            upcoming = pollRepository.findUpcomingExpiries(until, Limit.of(maxQueued));
+        } catch (RuntimeException e) {
+            // The old queue was kept up to date meanwhile and stays in use
+            synchronized (queue) {
+                arrivedDuringRefill = null;
+            }
+            throw e;
+        }
+
+        synchronized (queue) {
+            arrivedDuringRefill = null;
+            queue.clear();
+            upcoming.forEach(poll -> queue.add(new Due(poll.getExpiryTime(), poll.getId())));
+
+            // A full page may have cut the horizon short
+            coveredUntil = upcoming.size() < maxQueued
+                    ? until
+                    : upcoming.get(upcoming.size() - 1).getExpiryTime();
+
+            // Duplicates of rows the query did see cost one empty UPDATE
+            arrived.forEach(this::enqueueIfCovered);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPollChange(PollEvent event) {
+        if (event.getExpiryTime() == null) {
+            return;
+        }
+        Due due = new Due(event.getExpiryTime(), event.getPollId());
+        synchronized (queue) {
+            if (arrivedDuringRefill != null) {
+                arrivedDuringRefill.add(due);
+            }
+            enqueueIfCovered(due);
+        }
+    }
+
+    // Caller holds the queue lock
+    private void enqueueIfCovered(Due due) {
+        if (!due.expiryTime().isAfter(coveredUntil) && queue.size() < maxQueued) {
+            queue.add(due);
+        }
+    }
+
+    // ================= SWEEP =================
+
+    @Scheduled(fixedDelayString = "${polls.expiry.tick-ms:1000}")
+    public void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean due = false;
+
+        synchronized (queue) {
+            while (!queue.isEmpty() && !queue.peek().expiryTime().isAfter(now)) {
+                queue.poll();
+                due = true;
+            }
+        }
+
+        if (due) {
+            sweep();
+        }
+    }
+
+    // Stale entries (expiry extended, poll closed or deleted) cost one empty UPDATE
+    private void sweep() {
+        int closed;
+        do {
+            List<Long> pollIds = transactionTemplate.execute(status -> {
+                List<Long> ids = pollRepository.closeExpired(LocalDateTime.now(), batchSize);
+                ids.forEach(pollId ->
+                        eventPublisher.publishEvent(new PollEvent(PollEvent.Type.CLOSED, pollId)));
+                return ids;
+            });
+
+            closed = pollIds.size();
+            closedCounter.increment(closed);
+            if (closed > 0) {
+                log.debug("Closed {} expired polls", closed);
+            }
+        } while (closed == batchSize);
+    }
+}
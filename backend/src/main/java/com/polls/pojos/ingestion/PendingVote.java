@@ -0,0 +1,37 @@
+package com.polls.pojos.ingestion;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.polls.pojos.dto.VoteResponseDTO;
+
+// A validated vote waiting in the ingestion queue, completed once its batch
+// has been written
+class PendingVote {
+
+    private final Long pollId;
+    private final Long optionId;
+    private final Long userId;
+    private final CompletableFuture<VoteResponseDTO> result = new CompletableFuture<>();
+
+    PendingVote(Long pollId, Long optionId, Long userId) {
+        this.pollId = pollId;
+        this.optionId = optionId;
+        this.userId = userId;
+    }
+
+    Long getPollId() {
+        return pollId;
+    }
+
+    Long getOptionId() {
+        return optionId;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    CompletableFuture<VoteResponseDTO> getResult() {
+        return result;
+    }
+}
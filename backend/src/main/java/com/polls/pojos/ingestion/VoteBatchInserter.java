@@ -0,0 +1,152 @@
+package com.polls.pojos.ingestion;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.polls.pojos.repository.projection.VoteInsertResult;
+
+// Writes a whole batch of votes with one multi-row INSERT.
+// The batch is passed as three parallel bigint arrays and unnested in SQL, so
+// the statement text is the same for every batch size. Like
+// VoteRepository.insertVote, the statement returns the checks behind every
+// row it did not insert, so a rejected vote is explained without being
+// replayed on its own.
+@Component
+class VoteBatchInserter {
+
+    private static final String INSERT_SQL = """
+            WITH batch AS (
+                SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::bigint[]) WITH ORDINALITY
+                    AS b(poll_id, option_id, user_id, ord)
+            ),
+            target AS (
+                SELECT b.ord, b.poll_id, b.option_id, b.user_id,
+                       u.id IS NOT NULL AS user_exists,
+                       p.id IS NOT NULL AS poll_exists,
+                       COALESCE(p.closed, false) AS closed,
+                       COALESCE(p.expiry_time < ?, false) AS expired,
+                       o.id IS NOT NULL AS option_exists,
+                       COALESCE(o.poll_id = b.poll_id, false) AS option_in_poll
+                FROM batch b
+                LEFT JOIN polls p ON p.id = b.poll_id
+                LEFT JOIN poll_options o ON o.id = b.option_id
+                LEFT JOIN users u ON u.id = b.user_id
+            ),
+            inserted AS (
+                INSERT INTO votes (poll_id, option_id, user_id, voted_at)
+                SELECT t.poll_id, t.option_id, t.user_id, ?
+                FROM target t
+                WHERE t.user_exists AND t.poll_exists AND NOT t.closed AND NOT t.expired
+                  AND t.option_in_poll
+                ORDER BY t.ord
+                ON CONFLICT (poll_id, user_id) DO NOTHING
+                RETURNING id, poll_id, option_id, user_id
+            ),
+            option_count AS (
+                UPDATE poll_options o SET vote_count = o.vote_count + c.votes
+                FROM (SELECT option_id, COUNT(*) AS votes FROM inserted GROUP BY option_id) c
+                WHERE o.id = c.option_id
+            ),
+            poll_count AS (
+                UPDATE polls p SET vote_count = p.vote_count + c.votes
+                FROM (SELECT poll_id, COUNT(*) AS votes FROM inserted GROUP BY poll_id) c
+                WHERE p.id = c.poll_id
+            )
+            SELECT i.id, t.user_exists, t.poll_exists, t.closed, t.expired,
+                   t.option_exists, t.option_in_poll
+            FROM target t
+            LEFT JOIN inserted i
+                ON i.poll_id = t.poll_id AND i.user_id = t.user_id AND i.option_id = t.option_id
+            ORDER BY t.ord
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    VoteBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Must run inside the caller's transaction. One outcome per vote, in
+    // the order of the batch.
+    List<VoteOutcome> insert(List<PendingVote> votes, LocalDateTime now) {
+        Long[] pollIds = new Long[votes.size()];
+        Long[] optionIds = new Long[votes.size()];
+        Long[] userIds = new Long[votes.size()];
+
+        for (int i = 0; i < votes.size(); i++) {
+            PendingVote vote = votes.get(i);
+            pollIds[i] = vote.getPollId();
+            optionIds[i] = vote.getOptionId();
+            userIds[i] = vote.getUserId();
+        }
+
+        // The same vote queued twice joins the one inserted row twice; only
+        // the first keeps the id, the second is a repeat vote
+        Set<Long> claimed = new HashSet<>();
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", pollIds));
+            ps.setArray(2, con.createArrayOf("bigint", optionIds));
+            ps.setArray(3, con.createArrayOf("bigint", userIds));
+            ps.setObject(4, now);
+            ps.setObject(5, now);
+            return ps;
+        }, (rs, rowNum) -> {
+            Long id = rs.getObject("id", Long.class);
+            return new VoteOutcome(
+                    id != null && claimed.add(id) ? id : null,
+                    rs.getBoolean("user_exists"),
+                    rs.getBoolean("poll_exists"),
+                    rs.getBoolean("closed"),
+                    rs.getBoolean("expired"),
+                    rs.getBoolean("option_exists"),
+                    rs.getBoolean("option_in_poll"));
+        });
+    }
+
+    record VoteOutcome(Long voteId, boolean userExists, boolean pollExists, boolean closed,
+            boolean expired, boolean optionExists, boolean optionInPoll) implements VoteInsertResult {
+
+        @Override
+        public Long getVoteId() {
+            return voteId;
+        }
+
+        @Override
+        public boolean getUserExists() {
+            return userExists;
+        }
+
+        @Override
+        public boolean getPollExists() {
+            return pollExists;
+        }
+
+        @Override
+        public boolean getClosed() {
+            return closed;
+        }
+
+        @Override
+        public boolean getExpired() {
+            return expired;
+        }
+
+        @Override
+        public boolean getOptionExists() {
+            return optionExists;
+        }
+
+        @Override
+        public boolean getOptionInPoll() {
+            return optionInPoll;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.polls.pojos.ingestion;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.polls.pojos.dto.VoteResponseDTO;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.exception.BusinessException;
+import com.polls.pojos.exception.ServiceBusyException;
+import com.polls.pojos.ingestion.VoteBatchInserter.VoteOutcome;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Write-behind vote ingestion, enabled with polls.vote.ingestion.mode=batched.
+//
+// The vote endpoint enqueues onto a bounded queue and gets a future back. A
+// single flusher thread collects up to max-batch-size votes or waits at most
+// max-batch-delay-ms, writes them with one multi-row INSERT in one
+// transaction, and completes each caller's future once that commits.
+// Votes the batch insert skipped fail with the same rejection castVote would
+// give (duplicate, closed, ...), worked out by the insert statement itself.
+@Component
+@ConditionalOnProperty(name = "polls.vote.ingestion.mode", havingValue = "batched")
+public class VoteIngestionPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteIngestionPipeline.class);
+
+    private final BlockingQueue<PendingVote> queue;
+    private final VoteBatchInserter inserter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+
+    private final DistributionSummary batchSizes;
+    private final Timer flushLatency;
+    private final Counter rejected;
+
+    private final Thread flusher = new Thread(this::run, "vote-ingestion-flusher");
+    private volatile boolean running = true;
+
+    public VoteIngestionPipeline(VoteBatchInserter inserter,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${polls.vote.ingestion.queue-capacity:10000}") int queueCapacity,
+            @Value("${polls.vote.ingestion.max-batch-size:500}") int maxBatchSize,
+            @Value("${polls.vote.ingestion.max-batch-delay-ms:10}") long maxBatchDelayMs) {
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.inserter = inserter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchDelayMs);
+
+        this.batchSizes = DistributionSummary.builder("polls.votes.batch.size")
+                .description("Votes written per batch insert")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("polls.votes.batch.flush")
+                .description("Time to write and commit one vote batch")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("polls.votes.queue.rejected")
+                .description("Votes refused because the ingestion queue was full")
+                .register(meterRegistry);
+        Gauge.builder("polls.votes.queue.size", queue, BlockingQueue::size)
+                .description("Votes waiting to be flushed")
+                .register(meterRegistry);
+
+        flusher.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.start();
+    }
+
+    // Lets the flusher drain whatever is still queued before the context closes
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    public CompletableFuture<VoteResponseDTO> submit(Long pollId, Long optionId, Long userId) {
+
+        if (pollId == null || optionId == null || userId == null) {
+            throw new BusinessException("Poll, option and user are required");
+        }
+
+        PendingVote vote = new PendingVote(pollId, optionId, userId);
+
+        if (!running || !queue.offer(vote)) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many votes in flight, please retry", 1);
+        }
+
+        return vote.getResult();
+    }
+
+    // ================= FLUSHER =================
+
+    private void run() {
+        List<PendingVote> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingVote first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + maxBatchDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingVote next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Vote ingestion flusher failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingVote> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<VoteOutcome> outcomes;
+        long start = System.nanoTime();
+        try {
+            outcomes = transactionTemplate.execute(status -> {
+                List<VoteOutcome> rows = inserter.insert(batch, LocalDateTime.now());
+                // Delivered to @TransactionalEventListeners after commit
+                for (int i = 0; i < rows.size(); i++) {
+                    if (rows.get(i).voteId() != null) {
+                        PendingVote vote = batch.get(i);
+                        eventPublisher.publishEvent(
+                                VoteEvent.cast(vote.getPollId(), vote.getOptionId(), vote.getUserId()));
+                    }
+                }
+                return rows;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to write batch of {} votes", batch.size(), e);
+            batch.forEach(vote -> vote.getResult().completeExceptionally(e));
+            return;
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingVote vote = batch.get(i);
+            VoteOutcome outcome = outcomes.get(i);
+            if (outcome.voteId() != null) {
+                VoteResponseDTO dto = new VoteResponseDTO();
+                dto.setId(outcome.voteId());
+                dto.setMessage("Vote cast successfully");
+                vote.getResult().complete(dto);
+            } else {
+                vote.getResult().completeExceptionally(
+                        outcome.rejection(vote.getPollId(), vote.getOptionId(), vote.getUserId()));
+            }
+        }
+    }
+}
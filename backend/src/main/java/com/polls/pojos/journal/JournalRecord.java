@@ -0,0 +1,58 @@
+package com.polls.pojos.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+// One journal entry, fixed at 40 bytes:
+//
+//   poll id (8) | option id (8) | user id (8) | epoch millis (8) | op (1) | unused (3) | CRC32C (4)
+//
+// The checksum covers the first 36 bytes. A slot that was never written is
+// all zeros, which fails the check, so readers stop at the end of the data
+// without a length header.
+record JournalRecord(byte op, long pollId, long optionId, long userId, long timestamp) {
+
+    static final int SIZE = 40;
+
+    static final byte CAST = 1;
+    static final byte DELETE = 2;
+    // Poll archived or deleted: its votes are no longer restored from the journal
+    static final byte DROP_POLL = 3;
+
+    private static final int CHECKED = 36;
+
+    void writeTo(ByteBuffer target, byte[] scratch) {
+        ByteBuffer record = ByteBuffer.wrap(scratch);
+        record.putLong(pollId)
+                .putLong(optionId)
+                .putLong(userId)
+                .putLong(timestamp)
+                .put(op)
+                .put((byte) 0)
+                .putShort((short) 0);
+
+        CRC32C crc = new CRC32C();
+        crc.update(scratch, 0, CHECKED);
+        record.putInt((int) crc.getValue());
+
+        target.put(scratch, 0, SIZE);
+    }
+
+    // Null when the slot is empty or torn
+    static JournalRecord readFrom(ByteBuffer source, byte[] scratch) {
+        if (source.remaining() < SIZE) {
+            return null;
+        }
+        source.get(scratch, 0, SIZE);
+
+        ByteBuffer record = ByteBuffer.wrap(scratch);
+        CRC32C crc = new CRC32C();
+        crc.update(scratch, 0, CHECKED);
+        if (record.getInt(CHECKED) != (int) crc.getValue()) {
+            return null;
+        }
+
+        return new JournalRecord(record.get(32), record.getLong(0), record.getLong(8),
+                record.getLong(16), record.getLong(24));
+    }
+}
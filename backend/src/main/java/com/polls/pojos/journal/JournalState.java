@@ -0,0 +1,66 @@
+package com.polls.pojos.journal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Live votes per poll (user id -> option id) folded from journal records.
+// Folding is idempotent: a CAST seen twice or a DELETE of an absent vote
+// changes nothing, so records that overlap (a rebuilt or compacted base
+// followed by appends made while it was written) fold to the same state.
+class JournalState {
+
+    private final Map<Long, LongLongHashMap> polls = new HashMap<>();
+    private long votes;
+
+    void apply(JournalRecord record) {
+        apply(record.op(), record.pollId(), record.optionId(), record.userId());
+    }
+
+    void apply(byte op, long pollId, long optionId, long userId) {
+        switch (op) {
+            case JournalRecord.CAST -> {
+                LongLongHashMap voters = polls.computeIfAbsent(pollId, id -> new LongLongHashMap());
+                int before = voters.size();
+                voters.put(userId, optionId);
+                votes += voters.size() - before;
+            }
+            case JournalRecord.DELETE -> {
+                LongLongHashMap voters = polls.get(pollId);
+                if (voters != null) {
+                    int before = voters.size();
+                    voters.remove(userId);
+                    votes -= before - voters.size();
+                }
+            }
+            case JournalRecord.DROP_POLL -> {
+                LongLongHashMap voters = polls.remove(pollId);
+                if (voters != null) {
+                    votes -= voters.size();
+                }
+            }
+            default -> throw new IllegalStateException("Unknown journal op " + op);
+        }
+    }
+
+    int polls() {
+        return polls.size();
+    }
+
+    long votes() {
+        return votes;
+    }
+
+    List<Long> pollIds() {
+        return List.copyOf(polls.keySet());
+    }
+
+    LongLongHashMap voters(Long pollId) {
+        return polls.get(pollId);
+    }
+
+    void forEachPoll(BiConsumer<Long, LongLongHashMap> consumer) {
+        polls.forEach(consumer);
+    }
+}
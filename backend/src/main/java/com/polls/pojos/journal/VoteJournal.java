@@ -0,0 +1,479 @@
+package com.polls.pojos.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.tally.VoteTallyEngine;
+import com.polls.pojos.tally.VoterRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Append-only journal of committed votes, replayed at startup so tallies and
+// voter sets come back without querying the votes table.
+//
+// Committed VoteEvents are appended as fixed-size records (JournalRecord) to
+// a memory-mapped segment file; a full segment is forced and the next one is
+// mapped. Appends never wait for the disk. Compaction folds the sealed
+// segments into a single segment of live votes, on its own thread so a long
+// fold does not hold up the shared scheduler.
+//
+// The journal is trusted only after an orderly shutdown, which forces the
+// last segment and leaves a CLEAN marker. Records are appended after the
+// database commit, so after a crash the journal may lack votes (or vote
+// deletions) that did commit; it is then rebuilt from the votes table in one
+// sequential scan. Forcing the live segment while running would not change
+// that, so it is only forced on roll and on shutdown.
+//
+// Tallies are always installed from the vote_count columns. The journal
+// supplies the voter sets, and a poll's set is installed only when it adds
+// up to the same counts; otherwise (a vote written by another node while
+// this one was down) it is left to load lazily from the database. Recovery
+// runs after all singletons exist and before the web server and schedulers
+// start, so no vote event races the restore.
+//
+// The default restore source (polls.tally.restore=journal); TallySnapshotLoader
+// is the alternative, and only one of the two is ever created.
+@Component
+@ConditionalOnProperty(name = "polls.tally.restore", havingValue = "journal", matchIfMissing = true)
+public class VoteJournal implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteJournal.class);
+
+    private static final String CLEAN = "CLEAN";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+
+    // Archived polls are served from their summaries and not restored
+    private static final String REBUILD_SQL = """
+            SELECT v.poll_id, v.option_id, v.user_id
+            FROM votes v
+            JOIN polls p ON p.id = v.poll_id
+            WHERE p.archived_at IS NULL
+            """;
+
+    private final VoteTallyEngine voteTallyEngine;
+    private final VoterRegistry voterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int compactMinSegments;
+    private final long compactIntervalMs;
+    private final int restoreBatchSize;
+
+    private final Object lock = new Object();
+    private final byte[] scratch = new byte[JournalRecord.SIZE];
+
+    // Guarded by lock
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentSeq;
+    private boolean open;
+    private boolean closed;
+
+    private ScheduledExecutorService compactor;
+
+    private final Counter appended;
+
+    public VoteJournal(VoteTallyEngine voteTallyEngine,
+            VoterRegistry voterRegistry,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${polls.journal.dir:./data/journal}") String dir,
+            @Value("${polls.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${polls.journal.compact-min-segments:4}") int compactMinSegments,
+            @Value("${polls.journal.compact-interval-ms:600000}") long compactIntervalMs,
+            @Value("${polls.journal.restore-batch-size:500}") int restoreBatchSize) {
+        this.voteTallyEngine = voteTallyEngine;
+        this.voterRegistry = voterRegistry;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(10_000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dir = Path.of(dir);
+        // Whole records only, so a full segment has exactly zero bytes left
+        long records = Math.min(segmentSize.toBytes(), Integer.MAX_VALUE) / JournalRecord.SIZE;
+        this.segmentSize = (int) records * JournalRecord.SIZE;
+        this.compactMinSegments = Math.max(compactMinSegments, 2);
+        this.compactIntervalMs = compactIntervalMs;
+        this.restoreBatchSize = restoreBatchSize;
+        this.appended = Counter.builder("polls.journal.appended").register(meterRegistry);
+    }
+
+    // ================= RECOVERY =================
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(dir);
+            deleteLeftovers();
+            boolean clean = Files.deleteIfExists(dir.resolve(CLEAN));
+            List<Long> segments = segments();
+
+            JournalState state = clean && !segments.isEmpty() ? replay(segments) : null;
+            String source = "journal";
+            if (state == null) {
+                source = "votes table";
+                state = rebuild(segments);
+                segments = segments();
+            }
+
+            int voterSets = install(state);
+            synchronized (lock) {
+                openSegment(segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1);
+                open = true;
+            }
+            startCompactor();
+
+            log.info("Restored {} tallies and {} voter sets ({} votes) from the {} in {} ms",
+                    state.polls(), voterSets, state.votes(), source, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.error("Vote journal unavailable; tallies and voter sets will load from the database", e);
+        }
+    }
+
+    // Null when a record cannot be folded
+    private JournalState replay(List<Long> segments) throws IOException {
+        JournalState state = new JournalState();
+        byte[] buffer = new byte[JournalRecord.SIZE];
+        try {
+            for (Long seq : segments) {
+                try (FileChannel file = FileChannel.open(segmentPath(seq), StandardOpenOption.READ)) {
+                    ByteBuffer records = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+                    JournalRecord record;
+                    while ((record = JournalRecord.readFrom(records, buffer)) != null) {
+                        state.apply(record);
+                    }
+                }
+            }
+        } catch (IllegalStateException e) {
+            log.warn("Unreadable vote journal record", e);
+            return null;
+        }
+        return state;
+    }
+
+    // Old segments go first: a crash halfway through leaves no segments and
+    // no CLEAN marker, so the next start rebuilds again
+    private JournalState rebuild(List<Long> stale) throws IOException {
+        for (Long seq : stale) {
+            Files.deleteIfExists(segmentPath(seq));
+        }
+
+        JournalState state = new JournalState();
+        RowCallbackHandler fold = rs ->
+                state.apply(JournalRecord.CAST, rs.getLong(1), rs.getLong(2), rs.getLong(3));
+        // Inside a transaction so the driver streams the rows by fetch size
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(REBUILD_SQL, fold));
+
+        writeSegment(stale.isEmpty() ? 1 : stale.get(stale.size() - 1) + 1, state);
+        return state;
+    }
+
+    // Returns the number of voter sets installed
+    private int install(JournalState state) {
+        List<Long> pollIds = state.pollIds();
+        int installed = 0;
+        for (int from = 0; from < pollIds.size(); from += restoreBatchSize) {
+            List<Long> batch = pollIds.subList(from, Math.min(from + restoreBatchSize, pollIds.size()));
+            Map<Long, Map<Long, Long>> columns = voteTallyEngine.loadCounts(batch);
+
+            for (Long pollId : batch) {
+                Map<Long, Long> counts = columns.getOrDefault(pollId, Map.of());
+                voteTallyEngine.restore(pollId, counts);
+
+                LongLongHashMap voters = state.voters(pollId);
+                Map<Long, Long> journaled = new HashMap<>();
+                long[] userIds = new long[voters.size()];
+                int[] next = {0};
+                voters.forEach((userId, optionId) -> {
+                    userIds[next[0]++] = userId;
+                    journaled.merge(optionId, 1L, Long::sum);
+                });
+                if (sameCounts(journaled, counts)) {
+                    voterRegistry.restore(pollId, userIds);
+                    installed++;
+                }
+            }
+        }
+        return installed;
+    }
+
+    // Missing options count as zero on either side
+    private static boolean sameCounts(Map<Long, Long> a, Map<Long, Long> b) {
+        Set<Long> options = new HashSet<>(a.keySet());
+        options.addAll(b.keySet());
+        for (Long optionId : options) {
+            if (!Objects.equals(a.getOrDefault(optionId, 0L), b.getOrDefault(optionId, 0L))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ================= APPEND =================
+
+    @TransactionalEventListener
+    public void onVote(VoteEvent event) {
+        byte op = event.getType() == VoteEvent.Type.CAST ? JournalRecord.CAST : JournalRecord.DELETE;
+        append(op, event.getPollId(), event.getOptionId(), event.getUserId());
+    }
+
+    @TransactionalEventListener
+    public void onPollChange(PollEvent event) {
+        if (event.getType() == PollEvent.Type.ARCHIVED || event.getType() == PollEvent.Type.DELETED) {
+            append(JournalRecord.DROP_POLL, event.getPollId(), 0L, 0L);
+        }
+    }
+
+    private void append(byte op, long pollId, long optionId, long userId) {
+        synchronized (lock) {
+            if (closed) {
+                // A vote committed during shutdown is not in the forced
+                // journal, so it must not be trusted on the next start
+                deleteCleanMarker();
+                return;
+            }
+            if (!open) {
+                return;
+            }
+            try {
+                if (!segment.hasRemaining()) {
+                    roll();
+                }
+                new JournalRecord(op, pollId, optionId, userId, System.currentTimeMillis())
+                        .writeTo(segment, scratch);
+                appended.increment();
+            } catch (IOException | UncheckedIOException e) {
+                // No CLEAN marker will be written, so the next start rebuilds
+                log.error("Vote journal append failed, journal disabled until restart", e);
+                open = false;
+            }
+        }
+    }
+
+    // ================= SEGMENTS =================
+
+    private void roll() throws IOException {
+        segment.force();
+        channel.close();
+        openSegment(segmentSeq + 1);
+    }
+
+    private void openSegment(long seq) throws IOException {
+        channel = FileChannel.open(segmentPath(seq), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentSeq = seq;
+    }
+
+    // Writes a folded state as CAST records (stamped with the write time)
+    // and moves it into place as segment seq, replacing any file there
+    private void writeSegment(long seq, JournalState state) throws IOException {
+        Path tmp = dir.resolve(seq + TMP_SUFFIX);
+        long now = System.currentTimeMillis();
+        byte[] record = new byte[JournalRecord.SIZE];
+
+        try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(JournalRecord.SIZE * 4096);
+            state.forEachPoll((pollId, voters) -> voters.forEach((userId, optionId) -> {
+                if (!chunk.hasRemaining()) {
+                    drain(chunk, file);
+                }
+                new JournalRecord(JournalRecord.CAST, pollId, optionId, userId, now).writeTo(chunk, record);
+            }));
+            drain(chunk, file);
+            file.force(true);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Files.move(tmp, segmentPath(seq), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void drain(ByteBuffer chunk, FileChannel file) {
+        chunk.flip();
+        try {
+            while (chunk.hasRemaining()) {
+                file.write(chunk);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+    }
+
+    // ================= COMPACTION =================
+
+    private void startCompactor() {
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vote-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A task that throws is never run again, so nothing may escape
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                log.error("Vote journal compaction failed", e);
+            }
+        }, compactIntervalMs, compactIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Seals the live segment and folds every sealed segment into one, which
+    // takes the newest sealed segment's place. The fold holds only CASTs, so
+    // an older segment left behind by a crash between the move and the
+    // deletes would bring back votes deleted since; a crash leaves no CLEAN
+    // marker, though, so those segments are rebuilt rather than replayed.
+    // Shutdown waits for a compaction in progress for the same reason.
+    void compact() {
+        long sealedUpTo;
+        synchronized (lock) {
+            if (!open) {
+                return;
+            }
+            try {
+                if (segments().size() < compactMinSegments) {
+                    return;
+                }
+                roll();
+            } catch (IOException e) {
+                log.error("Vote journal roll failed, journal disabled until restart", e);
+                open = false;
+                return;
+            }
+            sealedUpTo = segmentSeq - 1;
+        }
+
+        try {
+            List<Long> sealed = segments().stream().filter(seq -> seq <= sealedUpTo).toList();
+            JournalState state = replay(sealed);
+            if (state == null) {
+                return;
+            }
+            writeSegment(sealedUpTo, state);
+            for (Long seq : sealed) {
+                if (seq < sealedUpTo) {
+                    Files.deleteIfExists(segmentPath(seq));
+                }
+            }
+            log.debug("Compacted {} journal segments into {} votes", sealed.size(), state.votes());
+        } catch (IOException e) {
+            log.error("Vote journal compaction failed", e);
+        }
+    }
+
+    // ================= SHUTDOWN =================
+
+    @Override
+    public void destroy() {
+        boolean compacted = stopCompactor();
+        synchronized (lock) {
+            closed = true;
+            if (!open) {
+                return;
+            }
+            open = false;
+            try {
+                segment.force();
+                channel.close();
+                if (compacted) {
+                    Files.write(dir.resolve(CLEAN), new byte[0]);
+                } else {
+                    log.warn("Vote journal compaction still running at shutdown; it will be rebuilt on the next start");
+                }
+            } catch (IOException e) {
+                log.error("Failed to close the vote journal; it will be rebuilt on the next start", e);
+            }
+        }
+    }
+
+    // False when a compaction did not finish in time
+    private boolean stopCompactor() {
+        if (compactor == null) {
+            return true;
+        }
+        compactor.shutdown();
+        try {
+            return compactor.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void deleteCleanMarker() {
+        try {
+            Files.deleteIfExists(dir.resolve(CLEAN));
+        } catch (IOException e) {
+            log.error("Failed to remove the vote journal CLEAN marker", e);
+        }
+    }
+
+    // ================= FILES =================
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(String.format("%020d%s", seq, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Unfinished compaction output
+    private void deleteLeftovers() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : files.filter(p -> p.toString().endsWith(TMP_SUFFIX)).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
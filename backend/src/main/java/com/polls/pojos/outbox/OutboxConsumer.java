@@ -0,0 +1,22 @@
+package com.polls.pojos.outbox;
+
+import java.util.List;
+
+// Receives committed events from OutboxRelay, in commit order, in batches.
+// Delivery is at least once: the consumer's offset only moves when handle()
+// returns, in the same transaction, so a batch that throws (or a node that
+// dies mid-batch) is delivered again. Handlers must tolerate repeats.
+public interface OutboxConsumer {
+
+    // Offsets are stored under this name; a name shared by several nodes is
+    // handled by one of them at a time
+    String name();
+
+    // Where a consumer seen for the first time starts: the oldest event still
+    // in the outbox, or only events committed from now on
+    default boolean replayRetained() {
+        return true;
+    }
+
+    void handle(List<OutboxEvent> events);
+}
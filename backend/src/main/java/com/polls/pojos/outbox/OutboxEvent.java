@@ -0,0 +1,29 @@
+package com.polls.pojos.outbox;
+
+import java.time.LocalDateTime;
+
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+
+// A committed change as read back from event_outbox.
+// event is the VoteEvent or PollEvent that was published in the writing
+// transaction; origin is the OutboxWriter.origin() of the node that wrote it.
+public record OutboxEvent(long id, String origin, LocalDateTime createdAt, Object event) {
+
+    private static final String VOTE = "VOTE_";
+    private static final String POLL = "POLL_";
+
+    static String typeOf(Object event) {
+        if (event instanceof VoteEvent vote) {
+            return VOTE + vote.getType().name();
+        }
+        return POLL + ((PollEvent) event).getType().name();
+    }
+
+    static Object toEvent(String type, Long pollId, Long optionId, Long userId, LocalDateTime expiryTime) {
+        if (type.startsWith(VOTE)) {
+            return new VoteEvent(VoteEvent.Type.valueOf(type.substring(VOTE.length())), pollId, optionId, userId);
+        }
+        return new PollEvent(PollEvent.Type.valueOf(type.substring(POLL.length())), pollId, expiryTime);
+    }
+}
@@ -0,0 +1,203 @@
+package com.polls.pojos.outbox;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Delivers event_outbox rows to every OutboxConsumer bean.
+// Each batch is one transaction: the consumer's offset row is locked with
+// SKIP LOCKED (a node already relaying that consumer is left alone), the
+// next events past the offset are read, handed to the consumer, and the
+// offset is moved to the last of them. If the consumer throws, the
+// transaction rolls back and the same batch comes again next tick.
+//
+// Events are read only up to the oldest transaction still running (see
+// V5__event_outbox.sql), so a long transaction holds delivery back for as
+// long as it runs.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Run every tick, so an offset expired while the node was unreachable
+    // comes back. A new consumer starts at zero or at the oldest running
+    // transaction; an existing row, locked or not, is left as it is.
+    private static final String REGISTER_SQL = """
+            INSERT INTO outbox_offsets (consumer, last_xact, last_id, updated_at)
+            VALUES (?, CASE WHEN ? THEN '0'::xid8 ELSE pg_snapshot_xmin(pg_current_snapshot()) END, 0, ?)
+            ON CONFLICT (consumer) DO NOTHING
+            """;
+
+    private static final String LOCK_SQL = """
+            SELECT consumer FROM outbox_offsets
+            WHERE consumer = ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String READ_SQL = """
+            SELECT e.id, e.event_type, e.poll_id, e.option_id, e.user_id, e.expiry_time,
+                   e.origin, e.created_at
+            FROM event_outbox e
+            JOIN outbox_offsets o ON o.consumer = ?
+            WHERE (e.xact_id, e.id) > (o.last_xact, o.last_id)
+              AND e.xact_id < pg_snapshot_xmin(pg_current_snapshot())
+            ORDER BY e.xact_id, e.id
+            LIMIT ?
+            """;
+
+    private static final String ADVANCE_SQL = """
+            UPDATE outbox_offsets o SET last_xact = e.xact_id, last_id = e.id, updated_at = ?
+            FROM event_outbox e
+            WHERE o.consumer = ? AND e.id = ?
+            """;
+
+    private static final String TOUCH_SQL = "UPDATE outbox_offsets SET updated_at = ? WHERE consumer = ?";
+
+    // Events every live consumer is past; offsets not touched since the
+    // cutoff belong to stopped nodes and no longer hold events back
+    private static final String PRUNE_SQL = """
+            DELETE FROM event_outbox WHERE id IN (
+                SELECT e.id FROM event_outbox e
+                WHERE e.created_at < ?
+                  AND NOT EXISTS (SELECT 1 FROM outbox_offsets o
+                                  WHERE o.updated_at >= ?
+                                    AND (o.last_xact, o.last_id) < (e.xact_id, e.id))
+                LIMIT ?)
+            """;
+
+    private static final String EXPIRE_OFFSETS_SQL = "DELETE FROM outbox_offsets WHERE updated_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxConsumer> consumers;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatches;
+    private final long retentionMs;
+    private final long offsetExpiryMs;
+
+    private final Counter failedCounter;
+    private final Counter prunedCounter;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<OutboxConsumer> consumers,
+            MeterRegistry meterRegistry,
+            @Value("${polls.outbox.enabled:true}") boolean enabled,
+            @Value("${polls.outbox.batch-size:500}") int batchSize,
+            @Value("${polls.outbox.max-batches-per-tick:20}") int maxBatches,
+            @Value("${polls.outbox.retention-ms:600000}") long retentionMs,
+            @Value("${polls.outbox.offset-expiry-ms:3600000}") long offsetExpiryMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.consumers = consumers.orderedStream().toList();
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.retentionMs = retentionMs;
+        this.offsetExpiryMs = offsetExpiryMs;
+        this.failedCounter = Counter.builder("polls.outbox.failed").register(meterRegistry);
+        this.prunedCounter = Counter.builder("polls.outbox.pruned").register(meterRegistry);
+    }
+
+    // ================= DELIVERY =================
+
+    @Scheduled(fixedDelayString = "${polls.outbox.interval-ms:200}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        for (OutboxConsumer consumer : consumers) {
+            try {
+                register(consumer);
+                // Drains a backlog in full batches, bounded so one busy
+                // consumer can't hold up the others
+                for (int batch = 0; batch < maxBatches; batch++) {
+                    Integer delivered = transactionTemplate.execute(status -> deliver(consumer));
+                    if (delivered == null || delivered < batchSize) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                log.error("Outbox delivery to {} failed; the batch will be retried", consumer.name(), e);
+            }
+        }
+    }
+
+    private void register(OutboxConsumer consumer) {
+        jdbcTemplate.update(REGISTER_SQL, consumer.name(), consumer.replayRetained(), now());
+    }
+
+    // Returns the number of events delivered, or null when another node holds the consumer
+    private Integer deliver(OutboxConsumer consumer) {
+        if (jdbcTemplate.queryForList(LOCK_SQL, String.class, consumer.name()).isEmpty()) {
+            return null;
+        }
+
+        List<OutboxEvent> events = jdbcTemplate.query(READ_SQL, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("id"),
+                rs.getString("origin"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                OutboxEvent.toEvent(
+                        rs.getString("event_type"),
+                        rs.getLong("poll_id"),
+                        rs.getObject("option_id", Long.class),
+                        rs.getObject("user_id", Long.class),
+                        rs.getObject("expiry_time", LocalDateTime.class))),
+                consumer.name(), batchSize);
+
+        if (events.isEmpty()) {
+            jdbcTemplate.update(TOUCH_SQL, now(), consumer.name());
+            return 0;
+        }
+
+        consumer.handle(events);
+
+        jdbcTemplate.update(ADVANCE_SQL, now(), consumer.name(), events.get(events.size() - 1).id());
+        meterRegistry.counter("polls.outbox.delivered", "consumer", consumer.name()).increment(events.size());
+        return events.size();
+    }
+
+    // ================= RETENTION =================
+
+    @Scheduled(fixedDelayString = "${polls.outbox.prune-interval-ms:60000}")
+    public void prune() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp liveSince = Timestamp.valueOf(now.minus(Duration.ofMillis(offsetExpiryMs)));
+
+            jdbcTemplate.update(EXPIRE_OFFSETS_SQL, liveSince);
+            int pruned = jdbcTemplate.update(PRUNE_SQL,
+                    Timestamp.valueOf(now.minus(Duration.ofMillis(retentionMs))), liveSince, batchSize * maxBatches);
+
+            prunedCounter.increment(pruned);
+        } catch (RuntimeException e) {
+            log.error("Failed to prune the event outbox", e);
+        }
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
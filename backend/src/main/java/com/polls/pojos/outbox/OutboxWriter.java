@@ -0,0 +1,166 @@
+package com.polls.pojos.outbox;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Copies every VoteEvent and PollEvent into event_outbox as part of the
+// transaction that published it, so an event is stored if and only if its
+// change commits. This is a plain @EventListener: it runs at publish time,
+// inside the transaction, and collects the transaction's events; they are
+// written with one multi-row INSERT just before commit, so a batch from the
+// ingestion pipeline costs the same single statement as one castVote.
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO event_outbox (event_type, poll_id, option_id, user_id, expiry_time, origin)
+            SELECT b.event_type, b.poll_id, b.option_id, b.user_id, b.expiry_time, ?
+            FROM unnest(?::varchar[], ?::bigint[], ?::bigint[], ?::bigint[], ?::timestamp[])
+                AS b(event_type, poll_id, option_id, user_id, expiry_time)
+            """;
+
+    // Room left in event_outbox.origin (see V6__outbox_node_names.sql)
+    private static final int MAX_ORIGIN_LENGTH = 64;
+
+    // Tags the rows this node writes (see OutboxEvent.origin) and names its
+    // RemoteChangeConsumer, so it must differ between nodes and stay the same
+    // across restarts: polls.node.name, or else the host name
+    private final String origin;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    private final Counter writtenCounter;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${polls.outbox.enabled:true}") boolean enabled,
+            @Value("${polls.node.name:}") String nodeName) {
+        this.origin = nodeName.isBlank() ? hostName() : nodeName.strip();
+        if (origin.length() > MAX_ORIGIN_LENGTH) {
+            throw new IllegalStateException("polls.node.name is longer than " + MAX_ORIGIN_LENGTH
+                    + " characters: " + origin);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.writtenCounter = Counter.builder("polls.outbox.written").register(meterRegistry);
+    }
+
+    public String origin() {
+        return origin;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot resolve the host name; set polls.node.name", e);
+        }
+    }
+
+    @EventListener
+    public void onVote(VoteEvent event) {
+        add(event);
+    }
+
+    @EventListener
+    public void onPollChange(PollEvent event) {
+        add(event);
+    }
+
+    private void add(Object event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Every publisher runs in a transaction today; this is the fallback
+            write(List.of(event));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    private void write(List<Object> events) {
+        int size = events.size();
+        String[] types = new String[size];
+        Long[] pollIds = new Long[size];
+        Long[] optionIds = new Long[size];
+        Long[] userIds = new Long[size];
+        Timestamp[] expiryTimes = new Timestamp[size];
+
+        for (int i = 0; i < size; i++) {
+            Object event = events.get(i);
+            types[i] = OutboxEvent.typeOf(event);
+            if (event instanceof VoteEvent vote) {
+                pollIds[i] = vote.getPollId();
+                optionIds[i] = vote.getOptionId();
+                userIds[i] = vote.getUserId();
+            } else {
+                PollEvent poll = (PollEvent) event;
+                pollIds[i] = poll.getPollId();
+                expiryTimes[i] = poll.getExpiryTime() == null ? null : Timestamp.valueOf(poll.getExpiryTime());
+            }
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+            ps.setString(1, origin);
+            ps.setArray(2, con.createArrayOf("varchar", types));
+            ps.setArray(3, con.createArrayOf("bigint", pollIds));
+            ps.setArray(4, con.createArrayOf("bigint", optionIds));
+            ps.setArray(5, con.createArrayOf("bigint", userIds));
+            ps.setArray(6, con.createArrayOf("timestamp", expiryTimes));
+            return ps;
+        });
+        writtenCounter.increment(size);
+    }
+
+    // The events of one transaction; bound to it while it runs
+    private final class Pending implements TransactionSynchronization {
+
+        private final List<Object> events = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(OutboxWriter.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.polls.pojos.outbox;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.polls.pojos.Poll;
+import com.polls.pojos.cache.PollCacheInvalidator;
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.stream.PollResultsStream;
+import com.polls.pojos.stream.PollUpdateBroadcaster;
+import com.polls.pojos.tally.VoteTallyEngine;
+import com.polls.pojos.tally.VoterRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Applies changes committed on other nodes to this node's in-memory state.
+// The node's own changes already reach its listeners after commit and are
+// skipped. Everything done here is safe to repeat: voter sets add or remove
+// the user, and tallies and cached reads of a changed poll are dropped and
+// reload from the database rather than being incremented. Live watchers
+// (SSE and WebSocket) then get the events the way local commits reach them,
+// after the tallies are dropped so their next push reads the new counts.
+//
+// Every node consumes under its node name (OutboxWriter.origin), so a
+// restarted node resumes from its offset and first drops what other nodes
+// changed while it was down. A node seen for the first time, or one whose
+// offset expired (polls.outbox.offset-expiry-ms), starts from the events
+// committed after it came up.
+@Component
+public class RemoteChangeConsumer implements OutboxConsumer {
+
+    private final String origin;
+    private final VoteTallyEngine voteTallyEngine;
+    private final VoterRegistry voterRegistry;
+    private final PollCacheInvalidator pollCacheInvalidator;
+    private final PollResultsStream pollResultsStream;
+    private final PollUpdateBroadcaster pollUpdateBroadcaster;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public RemoteChangeConsumer(OutboxWriter outboxWriter,
+            VoteTallyEngine voteTallyEngine,
+            VoterRegistry voterRegistry,
+            PollCacheInvalidator pollCacheInvalidator,
+            PollResultsStream pollResultsStream,
+            PollUpdateBroadcaster pollUpdateBroadcaster,
+            EntityManagerFactory entityManagerFactory) {
+        this.origin = outboxWriter.origin();
+        this.voteTallyEngine = voteTallyEngine;
+        this.voterRegistry = voterRegistry;
+        this.pollCacheInvalidator = pollCacheInvalidator;
+        this.pollResultsStream = pollResultsStream;
+        this.pollUpdateBroadcaster = pollUpdateBroadcaster;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public String name() {
+        return "remote-changes@" + origin;
+    }
+
+    @Override
+    public boolean replayRetained() {
+        return false;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Set<Long> changed = new HashSet<>();
+        List<OutboxEvent> remote = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (origin.equals(event.origin())) {
+                continue;
+            }
+            remote.add(event);
+            if (event.event() instanceof VoteEvent vote) {
+                voterRegistry.onVote(vote);
+                changed.add(vote.getPollId());
+            } else if (event.event() instanceof PollEvent poll) {
+                // Otherwise this node keeps serving (and checking) the Poll
+                // as it was before the other node closed or changed it
+                entityManagerFactory.getCache().evict(Poll.class, poll.getPollId());
+                if (poll.getType() == PollEvent.Type.ARCHIVED || poll.getType() == PollEvent.Type.DELETED) {
+                    voterRegistry.evict(poll.getPollId());
+                }
+                changed.add(poll.getPollId());
+            }
+        }
+
+        changed.forEach(pollId -> {
+            voteTallyEngine.evict(pollId);
+            pollCacheInvalidator.invalidate(pollId);
+        });
+
+        // In commit order, so a deleted poll's streams close after its last votes
+        for (OutboxEvent event : remote) {
+            if (event.event() instanceof VoteEvent vote) {
+                pollResultsStream.onVote(vote);
+                pollUpdateBroadcaster.onVote(vote);
+            } else if (event.event() instanceof PollEvent poll) {
+                pollResultsStream.onPollChange(poll);
+                pollUpdateBroadcaster.onPollChange(poll);
+            }
+        }
+    }
+}
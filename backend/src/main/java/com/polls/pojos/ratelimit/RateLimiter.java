@@ -0,0 +1,29 @@
+package com.polls.pojos.ratelimit;
+
+import com.polls.pojos.exception.TooManyRequestsException;
+
+// Admission control keyed by an arbitrary string (user, IP, email, ...).
+// The in-memory TokenBucketRateLimiter is per node; a shared implementation
+// (e.g. backed by Redis) can be dropped in behind the same interface.
+public interface RateLimiter {
+
+    // 0 if a permit was taken, otherwise milliseconds until one is available
+    long tryAcquire(String key);
+
+    // Gives back a permit taken by tryAcquire when the request is turned
+    // away by a later check after all
+    void release(String key);
+
+    // Drops state for keys that are back at full capacity
+    default void evictIdle() {
+    }
+
+    // 429 with Retry-After (whole seconds, rounded up) when no permit is left
+    default void acquire(String key) {
+        long retryAfterMs = tryAcquire(key);
+        if (retryAfterMs > 0) {
+            throw new TooManyRequestsException("Too many requests, try again later",
+                    Math.max(1, (retryAfterMs + 999) / 1000));
+        }
+    }
+}
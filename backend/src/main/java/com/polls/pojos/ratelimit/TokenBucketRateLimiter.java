@@ -0,0 +1,94 @@
+package com.polls.pojos.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Token bucket of `capacity` permits refilled at `permitsPerSecond`, kept as
+// a single "theoretical arrival time" per key (the GCRA form of a token
+// bucket). One long per key means an acquire is a lock-free CAS on an
+// AtomicLong, and a key whose time has passed is provably full, so idle
+// buckets can be dropped without losing anything.
+public class TokenBucketRateLimiter implements RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final Counter rejected;
+
+    public TokenBucketRateLimiter(String name, int capacity, double permitsPerSecond,
+            MeterRegistry meterRegistry) {
+        this(name, capacity, permitsPerSecond, meterRegistry, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(String name, int capacity, double permitsPerSecond,
+            MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        if (capacity < 1 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs capacity >= 1 and a positive rate");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = intervalNanos * capacity;
+        this.nanoTime = nanoTime;
+
+        this.rejected = Counter.builder("polls.ratelimit.rejected")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("polls.ratelimit.keys", buckets, ConcurrentHashMap::size)
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long tryAcquire(String key) {
+        AtomicLong arrival = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long tat = arrival.get();
+            long start = tat == Long.MIN_VALUE || tat < now ? now : tat;
+            long next = start + intervalNanos;
+
+            // Would exceed the burst: reject without consuming
+            if (next - now > burstNanos) {
+                rejected.increment();
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - now - burstNanos));
+            }
+            if (arrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        AtomicLong arrival = buckets.get(key);
+        if (arrival == null) {
+            return;
+        }
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long tat = arrival.get();
+            // Already full again (or evicted and re-created): nothing to give back
+            if (tat == Long.MIN_VALUE || tat - now <= 0) {
+                return;
+            }
+            if (arrival.compareAndSet(tat, Math.max(now, tat - intervalNanos))) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void evictIdle() {
+        long now = nanoTime.getAsLong();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+    }
+}
@@ -0,0 +1,54 @@
+package com.polls.pojos.ratelimit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.polls.pojos.exception.TooManyRequestsException;
+
+// Admission control for POST /api/polls/{pollId}/vote, checked before any
+// other work. The user key is the authenticated principal rather than the
+// userId in the body, which the client chooses freely.
+@Component
+public class VoteRateLimits {
+
+    private final RateLimiter userLimiter;
+    private final RateLimiter ipLimiter;
+    private final RateLimiter pollLimiter;
+
+    public VoteRateLimits(@Qualifier("voteUserLimiter") RateLimiter userLimiter,
+            @Qualifier("voteIpLimiter") RateLimiter ipLimiter,
+            @Qualifier("votePollLimiter") RateLimiter pollLimiter) {
+        this.userLimiter = userLimiter;
+        this.ipLimiter = ipLimiter;
+        this.pollLimiter = pollLimiter;
+    }
+
+    // Narrowest first, so one noisy client drains its own buckets before
+    // it can eat into the shared per-poll budget. remoteAddr is the client
+    // address, taken from X-Forwarded-For only when a trusted proxy sent it
+    // (server.forward-headers-strategy). A request rejected by a later
+    // limit gives back the permits it already took, so it costs nothing.
+    public void acquire(Long pollId, String remoteAddr) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String user = authentication != null ? authentication.getName() : null;
+        if (user != null) {
+            userLimiter.acquire(user);
+        }
+        try {
+            ipLimiter.acquire(remoteAddr);
+            try {
+                pollLimiter.acquire(String.valueOf(pollId));
+            } catch (TooManyRequestsException e) {
+                ipLimiter.release(remoteAddr);
+                throw e;
+            }
+        } catch (TooManyRequestsException e) {
+            if (user != null) {
+                userLimiter.release(user);
+            }
+            throw e;
+        }
+    }
+}
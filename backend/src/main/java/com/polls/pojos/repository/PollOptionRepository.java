@@ -1,12 +1,56 @@
 package com.polls.pojos.repository;
 
 import com.polls.pojos.PollOption;
+import com.polls.pojos.repository.projection.OptionView;
+import com.polls.pojos.repository.projection.OptionVoteCount;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import org.hibernate.jpa.AvailableHints;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface PollOptionRepository extends JpaRepository<PollOption, Long> {
 
+    // Options never change after creation, so the id list is query-cached
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<PollOption> findByPollId(Long pollId);
+
+    // Counts come from the same place as findVoteCounts: an archived poll's
+    // votes may have moved to votes_archive, so its live column can lag
+    @Query(value = "SELECT o.poll_id AS \"pollId\", o.id AS \"id\", o.option_text AS \"optionText\", "
+            + "COALESCE(s.vote_count, o.vote_count) AS \"voteCount\" FROM poll_options o "
+            + "LEFT JOIN poll_results_summary s ON s.poll_id = o.poll_id AND s.option_id = o.id "
+            + "WHERE o.poll_id IN :pollIds ORDER BY o.id", nativeQuery = true)
+    List<OptionView> findViewsByPollIds(Collection<Long> pollIds);
+
+    // Archived polls are counted from their frozen summary rows, open ones
+    // from the live columns
+    @Query(value = "SELECT o.poll_id AS \"pollId\", o.id AS \"optionId\", "
+            + "COALESCE(s.vote_count, o.vote_count) AS \"votes\" FROM poll_options o "
+            + "LEFT JOIN poll_results_summary s ON s.poll_id = o.poll_id AND s.option_id = o.id "
+            + "WHERE o.poll_id IN :pollIds", nativeQuery = true)
+    List<OptionVoteCount> findVoteCounts(Collection<Long> pollIds);
+
+    // See PollRepository.adjustVoteCount
+    @Query(value = "UPDATE poll_options SET vote_count = vote_count + :delta WHERE id = :optionId "
+            + "RETURNING vote_count", nativeQuery = true)
+    Long adjustVoteCount(Long optionId, long delta);
+
+    // Resets every drifted counter from the votes table. Archived polls are
+    // skipped: their votes may have moved to votes_archive.
+    @Modifying
+    @Query(value = "UPDATE poll_options o SET vote_count = c.votes "
+            + "FROM (SELECT po.id, COUNT(v.id) AS votes FROM poll_options po "
+            + "JOIN polls pl ON pl.id = po.poll_id AND pl.archived_at IS NULL "
+            + "LEFT JOIN votes v ON v.option_id = po.id GROUP BY po.id) c "
+            + "WHERE c.id = o.id AND o.vote_count <> c.votes", nativeQuery = true)
+    int repairVoteCounts();
 }
 
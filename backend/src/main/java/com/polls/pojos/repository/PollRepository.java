@@ -1,15 +1,111 @@
 package com.polls.pojos.repository;
 
 import com.polls.pojos.Poll;
-import com.polls.pojos.User;
+import com.polls.pojos.dto.MyPollDTO;
+import com.polls.pojos.repository.projection.PollExpiryView;
+import com.polls.pojos.repository.projection.PollSummaryView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface PollRepository extends JpaRepository<Poll, Long> {
 
-    List<Poll> findByCreatedBy(User user);
+    // Dashboard rows straight into the DTO, vote counts included, newest first
+    @Query("SELECT new com.polls.pojos.dto.MyPollDTO(p.id, p.question, p.voteCount, "
+            + "p.expiryTime, p.closed, p.createdAt) "
+            + "FROM Poll p WHERE p.createdBy.id = :userId AND p.id < :cursor "
+            + "ORDER BY p.id DESC")
+    List<MyPollDTO> findMyPollsByUserId(Long userId, Long cursor, Limit limit);
 
-    @org.springframework.data.jpa.repository.Query("SELECT p FROM Poll p JOIN Vote v ON p.id = v.poll.id WHERE v.user.id = :userId")
-    List<Poll> findVotedPollsByUserId(Long userId);
+    // Walks the votes(user_id, poll_id) index backwards from the cursor. No
+    // poll_id equality, so every partition's index is scanned and merged.
+    @Query("SELECT new com.polls.pojos.dto.MyPollDTO(p.id, p.question, p.voteCount, "
+            + "p.expiryTime, p.closed, p.createdAt) "
+            + "FROM Vote v JOIN v.poll p WHERE v.user.id = :userId AND v.poll.id < :cursor "
+            + "ORDER BY v.poll.id DESC")
+    List<MyPollDTO> findVotedPollsByUserId(Long userId, Long cursor, Limit limit);
+
+    @Query("SELECT p.id AS id, p.question AS question, p.expiryTime AS expiryTime, "
+            + "p.closed AS closed, p.createdAt AS createdAt, u.username AS createdBy, "
+            + "p.voteCount AS voteCount "
+            + "FROM Poll p JOIN p.createdBy u WHERE p.id = :pollId")
+    Optional<PollSummaryView> findSummaryById(Long pollId);
+
+    // Open polls due within the sweeper's horizon, soonest first
+    @Query("SELECT p.id AS id, p.expiryTime AS expiryTime FROM Poll p "
+            + "WHERE p.closed = false AND p.expiryTime <= :until ORDER BY p.expiryTime")
+    List<PollExpiryView> findUpcomingExpiries(LocalDateTime until, Limit limit);
+
+    // Closes up to :batchSize expired polls and returns their ids. SKIP LOCKED
+    // lets sweepers on several nodes run without blocking each other. Not
+    // @Modifying: the RETURNING rows are read as a result set.
+    @Query(value = """
+            UPDATE polls SET closed = true
+            WHERE id IN (
+                SELECT id FROM polls
+                WHERE NOT closed AND expiry_time <= :now
+                ORDER BY expiry_time
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> closeExpired(LocalDateTime now, int batchSize);
+
+    // Keyset page of the poll feed, newest first. Options and votes are not
+    // loaded; status is one of ALL, OPEN, CLOSED, EXPIRING.
+    @Query("SELECT p.id AS id, p.question AS question, p.expiryTime AS expiryTime, "
+            + "p.closed AS closed, p.createdAt AS createdAt, u.username AS createdBy, "
+            + "p.voteCount AS voteCount "
+            + "FROM Poll p JOIN p.createdBy u "
+            + "WHERE p.id < :cursor "
+            + "AND (:createdBy IS NULL OR u.id = :createdBy) "
+            + "AND (:status = 'ALL' "
+            + "  OR (:status = 'OPEN' AND p.closed = false "
+            + "      AND (p.expiryTime IS NULL OR p.expiryTime > :now)) "
+            + "  OR (:status = 'CLOSED' AND (p.closed = true OR p.expiryTime <= :now)) "
+            + "  OR (:status = 'EXPIRING' AND p.closed = false "
+            + "      AND p.expiryTime > :now AND p.expiryTime <= :soon)) "
+            + "ORDER BY p.id DESC")
+    List<PollSummaryView> findFeedPage(Long cursor, Long createdBy, String status,
+            LocalDateTime now, LocalDateTime soon, Limit limit);
+
+    // Not @Modifying: a native bulk update would make Hibernate clear every
+    // second-level cache region, and vote_count is never read from entities
+    @Query(value = "UPDATE polls SET vote_count = vote_count + :delta WHERE id = :pollId "
+            + "RETURNING vote_count", nativeQuery = true)
+    Long adjustVoteCount(Long pollId, long delta);
+
+    // Owner and options in one statement, for the DTO returned by close/expiry updates
+    @EntityGraph(attributePaths = {"createdBy", "options"})
+    Optional<Poll> findWithOwnerAndOptionsById(Long pollId);
+
+    // Close and expiry changes decide on the row, not on a Poll that may come
+    // from a stale second-level cache, and write only their own column. No
+    // row comes back when the poll is closed already (or, for the expiry,
+    // expired). Not @Modifying, as for adjustVoteCount; the caller's PollEvent
+    // evicts the cached entity after commit.
+    @Query(value = "UPDATE polls SET closed = true WHERE id = :pollId AND NOT closed "
+            + "RETURNING id", nativeQuery = true)
+    Optional<Long> closeIfOpen(Long pollId);
+
+    @Query(value = "UPDATE polls SET expiry_time = :expiryTime "
+            + "WHERE id = :pollId AND NOT closed AND (expiry_time IS NULL OR expiry_time > :now) "
+            + "RETURNING id", nativeQuery = true)
+    Optional<Long> updateExpiryIfOpen(Long pollId, LocalDateTime expiryTime, LocalDateTime now);
+
+    // Resets every drifted counter from the votes table. Archived polls are
+    // skipped: their total was fixed from the summary when they were archived.
+    @Modifying
+    @Query(value = "UPDATE polls p SET vote_count = c.votes "
+            + "FROM (SELECT pl.id, COUNT(v.id) AS votes FROM polls pl "
+            + "LEFT JOIN votes v ON v.poll_id = pl.id "
+            + "WHERE pl.archived_at IS NULL GROUP BY pl.id) c "
+            + "WHERE c.id = p.id AND p.vote_count <> c.votes", nativeQuery = true)
+    int repairVoteCounts();
 }
@@ -1,10 +1,16 @@
 package com.polls.pojos.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.polls.pojos.Vote;
+import com.polls.pojos.repository.projection.VoteInsertResult;
+import com.polls.pojos.repository.projection.VoteKeyView;
 
 public interface VoteRepository extends JpaRepository<Vote, Long> {
 
@@ -13,7 +19,77 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
     long countByPollIdAndOptionId(Long pollId, Long optionId);
 
     boolean existsByUserIdAndPollId(Long userId, Long pollId);
-    
-    Optional<Vote> findByPollIdAndUserId(Long pollId, Long userId);
+
+    boolean existsByPollId(Long pollId);
+
+    // Deletes the user's vote and returns its option id. Keyed on poll_id so
+    // only that poll's partition is touched; a delete by primary key alone
+    // (JpaRepository.delete) would probe every partition. Not @Modifying:
+    // the RETURNING row is read as a result set.
+    @Query(value = "DELETE FROM votes WHERE poll_id = :pollId AND user_id = :userId "
+            + "RETURNING option_id", nativeQuery = true)
+    Optional<Long> deleteVote(Long pollId, Long userId);
+
+    // Includes voters whose rows the archiver moved to votes_archive
+    @Query(value = """
+            SELECT user_id FROM votes WHERE poll_id = :pollId
+            UNION ALL
+            SELECT unnest(user_ids) FROM votes_archive WHERE poll_id = :pollId
+            """, nativeQuery = true)
+    List<Long> findVoterIds(Long pollId);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM votes_archive WHERE poll_id = :pollId)",
+            nativeQuery = true)
+    boolean existsArchivedByPollId(Long pollId);
+
+    // Votes cast on these polls after a snapshot watermark; one primary key
+    // range scan per poll, each pruned to that poll's partition
+    @Query(value = "SELECT poll_id AS \"pollId\", option_id AS \"optionId\", user_id AS \"userId\" "
+            + "FROM votes WHERE poll_id IN :pollIds AND id > :afterId", nativeQuery = true)
+    List<VoteKeyView> findVotesAfter(Collection<Long> pollIds, long afterId);
+
+    // Validates and records a vote in one statement: the insert only happens
+    // for an existing user on an open, unexpired poll with one of its own
+    // options, and ON CONFLICT turns the (poll_id, user_id) race into a no-op.
+    // The vote_count columns are bumped by the same statement.
+    @Query(value = """
+            WITH target AS (
+                SELECT p.id AS poll_id, p.closed, p.expiry_time,
+                       o.id AS option_id, o.poll_id AS option_poll_id,
+                       EXISTS (SELECT 1 FROM users u WHERE u.id = :userId) AS user_exists
+                FROM (SELECT 1) AS one
+                LEFT JOIN polls p ON p.id = :pollId
+                LEFT JOIN poll_options o ON o.id = :optionId
+            ),
+            inserted AS (
+                INSERT INTO votes (poll_id, option_id, user_id, voted_at)
+                SELECT t.poll_id, t.option_id, :userId, :now
+                FROM target t
+                WHERE t.user_exists
+                  AND t.poll_id IS NOT NULL
+                  AND NOT t.closed
+                  AND (t.expiry_time IS NULL OR t.expiry_time >= :now)
+                  AND t.option_poll_id = t.poll_id
+                ON CONFLICT (poll_id, user_id) DO NOTHING
+                RETURNING id, poll_id, option_id
+            ),
+            option_count AS (
+                UPDATE poll_options SET vote_count = vote_count + 1
+                WHERE id IN (SELECT option_id FROM inserted)
+            ),
+            poll_count AS (
+                UPDATE polls SET vote_count = vote_count + 1
+                WHERE id IN (SELECT poll_id FROM inserted)
+            )
+            SELECT (SELECT id FROM inserted) AS "voteId",
+                   t.user_exists AS "userExists",
+                   t.poll_id IS NOT NULL AS "pollExists",
+                   COALESCE(t.closed, false) AS "closed",
+                   COALESCE(t.expiry_time < :now, false) AS "expired",
+                   t.option_id IS NOT NULL AS "optionExists",
+                   COALESCE(t.option_poll_id = t.poll_id, false) AS "optionInPoll"
+            FROM target t
+            """, nativeQuery = true)
+    VoteInsertResult insertVote(Long pollId, Long optionId, Long userId, LocalDateTime now);
 
 }
@@ -0,0 +1,12 @@
+package com.polls.pojos.repository.projection;
+
+public interface OptionView {
+
+    Long getPollId();
+
+    Long getId();
+
+    String getOptionText();
+
+    Long getVoteCount();
+}
@@ -0,0 +1,10 @@
+package com.polls.pojos.repository.projection;
+
+public interface OptionVoteCount {
+
+    Long getPollId();
+
+    Long getOptionId();
+
+    long getVotes();
+}
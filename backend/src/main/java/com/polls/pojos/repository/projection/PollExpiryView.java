@@ -0,0 +1,10 @@
+package com.polls.pojos.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface PollExpiryView {
+
+    Long getId();
+
+    LocalDateTime getExpiryTime();
+}
@@ -0,0 +1,21 @@
+package com.polls.pojos.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Poll columns needed to render a poll, without touching its options or votes
+public interface PollSummaryView {
+
+    Long getId();
+
+    String getQuestion();
+
+    LocalDateTime getExpiryTime();
+
+    Boolean getClosed();
+
+    LocalDateTime getCreatedAt();
+
+    String getCreatedBy();
+
+    Long getVoteCount();
+}
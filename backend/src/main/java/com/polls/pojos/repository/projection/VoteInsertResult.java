@@ -0,0 +1,47 @@
+package com.polls.pojos.repository.projection;
+
+import com.polls.pojos.exception.BusinessException;
+import com.polls.pojos.exception.ResourceNotFoundException;
+
+// Outcome of VoteRepository.insertVote (or of one row of a batch insert): the
+// new vote id, or null together with the flags needed to explain why nothing
+// was inserted.
+public interface VoteInsertResult {
+
+    Long getVoteId();
+
+    boolean getUserExists();
+
+    boolean getPollExists();
+
+    boolean getClosed();
+
+    boolean getExpired();
+
+    boolean getOptionExists();
+
+    boolean getOptionInPoll();
+
+    // Same checks, in the same order, as the old step-by-step castVote
+    default RuntimeException rejection(Long pollId, Long optionId, Long userId) {
+        if (!getUserExists()) {
+            return new ResourceNotFoundException("User not found with id " + userId);
+        }
+        if (!getPollExists()) {
+            return new ResourceNotFoundException("Poll not found with id " + pollId);
+        }
+        if (getClosed()) {
+            return new BusinessException("Poll is already closed");
+        }
+        if (getExpired()) {
+            return new BusinessException("Voting time has expired");
+        }
+        if (!getOptionExists()) {
+            return new ResourceNotFoundException("Option not found with id " + optionId);
+        }
+        if (!getOptionInPoll()) {
+            return new BusinessException("Option does not belong to this poll");
+        }
+        return new BusinessException("User has already voted");
+    }
+}
@@ -0,0 +1,10 @@
+package com.polls.pojos.repository.projection;
+
+public interface VoteKeyView {
+
+    Long getPollId();
+
+    Long getOptionId();
+
+    Long getUserId();
+}
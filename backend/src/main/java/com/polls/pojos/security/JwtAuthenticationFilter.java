@@ -1,29 +1,45 @@
 package com.polls.pojos.security;
 
 import java.io.IOException;
+import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+// Authenticates from the verified token alone: id and role travel as claims,
+// so a request costs no user lookup. Tokens of users in TokenRevocations are
+// refused. polls.security.jwt.strict=true restores the per-request lookup,
+// as do tokens issued before the claims existed.
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocations tokenRevocations;
+    private final boolean strict;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, CustomUserDetailsService userDetailsService,
+            TokenRevocations tokenRevocations,
+            @Value("${polls.security.jwt.strict:false}") boolean strict) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocations = tokenRevocations;
+        this.strict = strict;
     }
 
     @Override
@@ -31,27 +47,54 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtUtils.extractUsername(jwt);
+        UsernamePasswordAuthenticationToken authToken = authenticate(authHeader.substring(7));
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-            if (jwtUtils.validateToken(jwt)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        if (authToken != null) {
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
+
+    // null leaves the request anonymous; the security chain then rejects it
+    private UsernamePasswordAuthenticationToken authenticate(String jwt) {
+        Claims claims;
+        try {
+            claims = jwtUtils.extractClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        Long userId = claims.get(JwtUtils.USER_ID_CLAIM, Long.class);
+        String role = claims.get(JwtUtils.ROLE_CLAIM, String.class);
+
+        if (userId != null && tokenRevocations.isRevoked(userId, claims.getIssuedAt())) {
+            return null;
+        }
+
+        if (strict || userId == null || role == null) {
+            return fromDatabase(claims.getSubject());
+        }
+
+        JwtUser principal = new JwtUser(userId, claims.getSubject(), role);
+        return new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
+    private UsernamePasswordAuthenticationToken fromDatabase(String email) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            return new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,13 @@
+package com.polls.pojos.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+// Principal built from verified token claims; getName() is the email, as
+// with the UserDetails the filter used to load
+public record JwtUser(Long id, String email, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,10 +1,19 @@
 package com.polls.pojos.security;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -12,32 +21,79 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtils {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
     // In a real application, store this in application.properties
     private static final String SECRET_KEY = "YourSecretKeyForJwtSigningShouldBeLongEnoughToSurviveBruteForceAttacks";
-    private static final long EXPIRATION_TIME = 86400000; // 24 hours
+    static final long EXPIRATION_TIME = 86400000; // 24 hours
 
     private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
-    public String generateToken(String username) {
+    // Immutable and thread-safe: built once instead of per call
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Token -> verified claims. A token is immutable, so once its signature
+    // has checked out the result can be reused until the token's own exp;
+    // repeat requests skip base64, JSON and HMAC work entirely.
+    private final Cache<String, Claims> verified;
+
+    public JwtUtils(@Value("${polls.security.jwt.verified-cache-size:10000}") long verifiedCacheSize) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                        Date exp = claims.getExpiration();
+                        long millis = exp == null
+                                ? EXPIRATION_TIME
+                                : exp.getTime() - System.currentTimeMillis();
+                        return Duration.ofMillis(Math.max(0, millis)).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // Subject is the email; id and role let the filter authenticate without a lookup
+    public String generateToken(String email, Long userId, String role) {
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(email)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLE_CLAIM, role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
-    }
-
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+    // Verifies signature and expiry once and returns every claim; throws
+    // JwtException if either check fails. Failures are never cached.
+    public Claims extractClaims(String token) {
+        Claims claims = verified.getIfPresent(token);
+        if (claims != null) {
+            // The cache expires entries at exp, but not to the millisecond
+            Date exp = claims.getExpiration();
+            if (exp != null && !exp.after(new Date())) {
+                verified.invalidate(token);
+                throw new ExpiredJwtException(null, claims, "JWT expired at " + exp);
+            }
+            return claims;
         }
+
+        claims = parser.parseClaimsJws(token).getBody();
+        verified.put(token, claims);
+        return claims;
     }
 }
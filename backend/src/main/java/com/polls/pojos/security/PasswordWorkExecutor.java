@@ -0,0 +1,62 @@
+package com.polls.pojos.security;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.polls.pojos.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+// Runs BCrypt work (login, signup) on a small dedicated pool so a login
+// burst queues here instead of occupying Tomcat threads that serve votes.
+// The queue is bounded; when it is full the request is refused with 503
+// rather than waiting behind work that will time out anyway.
+@Component
+public class PasswordWorkExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public PasswordWorkExecutor(MeterRegistry meterRegistry,
+            @Value("${polls.auth.executor.threads:0}") int threads,
+            @Value("${polls.auth.executor.queue-capacity:200}") int queueCapacity) {
+
+        // BCrypt is pure CPU: by default use half the cores, at least one
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-work-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        new ExecutorServiceMetrics(executor, "polls.auth.executor", List.of()).bindTo(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many sign-in requests, try again shortly", 1);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
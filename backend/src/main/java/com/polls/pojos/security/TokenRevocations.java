@@ -0,0 +1,102 @@
+package com.polls.pojos.security;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.polls.pojos.datasource.ReadWriteRoutingDataSource;
+
+// Users whose tokens must not be trusted any more (role or email changed,
+// account revoked). Tokens issued before the recorded time are rejected.
+// Entries only need to outlive the tokens they reject, so the TTL is the
+// token lifetime and the cache stays small.
+//
+// The time is stored on the user (users.tokens_revoked_at) by the caller of
+// revoke(), in the same transaction as the change, and only takes effect
+// here once that transaction commits. Every node reloads the
+// revocations younger than the token lifetime at startup, before the web
+// server takes requests, and then every reload interval, so a revocation
+// made on one node is enforced everywhere within that interval and survives
+// restarts.
+@Component
+public class TokenRevocations implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocations.class);
+
+    private static final String RECENT_SQL =
+            "SELECT id, tokens_revoked_at FROM users WHERE tokens_revoked_at > ?";
+
+    private final Cache<Long, Long> revokedAt = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(JwtUtils.EXPIRATION_TIME))
+            .maximumSize(100_000)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TokenRevocations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Returns the time to store on the user. Inside a transaction it takes
+    // effect on this node after commit, so a rolled-back change revokes
+    // nothing; outside of one, at once.
+    public LocalDateTime revoke(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        long at = Timestamp.valueOf(now).getTime();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(userId, at);
+                }
+            });
+        } else {
+            record(userId, at);
+        }
+        return now;
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        Long since = revokedAt.getIfPresent(userId);
+        // iat has second precision; a token issued in the same second as the
+        // revocation is treated as revoked
+        return since != null && (issuedAt == null || issuedAt.getTime() <= since);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    // Revocations older than the token lifetime only reject expired tokens
+    @Scheduled(fixedDelayString = "${polls.security.revocations.reload-interval-ms:5000}")
+    public void reload() {
+        Timestamp since = new Timestamp(System.currentTimeMillis() - JwtUtils.EXPIRATION_TIME);
+        RowCallbackHandler load = rs -> record(rs.getLong(1), rs.getTimestamp(2).getTime());
+        try {
+            ReadWriteRoutingDataSource.onPrimary(() -> {
+                jdbcTemplate.query(RECENT_SQL, load, since);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to reload token revocations", e);
+        }
+    }
+
+    private void record(Long userId, long at) {
+        revokedAt.asMap().merge(userId, at, Math::max);
+    }
+}
@@ -4,7 +4,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.polls.pojos.dto.CreatePollRequestDTO;
-import com.polls.pojos.dto.MyPollDTO;
+import com.polls.pojos.dto.MyPollPageDTO;
+import com.polls.pojos.dto.PollFeedPageDTO;
 import com.polls.pojos.dto.PollResponseDTO;
 
 public interface PollService {
@@ -15,12 +16,14 @@ public interface PollService {
 
     PollResponseDTO getPollById(Long pollId, Long userId);
 
-    List<MyPollDTO> getPollsByUser(Long userId);
+    MyPollPageDTO getPollsByUser(Long userId, Long cursor, Integer size);
 
-    List<MyPollDTO> getPollsVotedByUser(Long userId);
+    MyPollPageDTO getPollsVotedByUser(Long userId, Long cursor, Integer size);
 
     List<PollResponseDTO> getAllPolls();
 
+    PollFeedPageDTO getPollFeed(String status, Long createdBy, Long cursor, Integer size);
+
     PollResponseDTO closePoll(Long pollId, Long userId);
 
     PollResponseDTO updateExpiry(Long pollId, Long userId, LocalDateTime expiryTime);
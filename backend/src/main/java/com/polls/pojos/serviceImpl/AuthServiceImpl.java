@@ -70,7 +70,7 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new BusinessException("User not found"));
 
-        String token = jwtUtils.generateToken(user.getEmail());
+        String token = jwtUtils.generateToken(user.getEmail(), user.getId(), user.getRole());
 
         LoginResponseDTO response = new LoginResponseDTO();
         response.setId(user.getId());
@@ -0,0 +1,81 @@
+package com.polls.pojos.serviceImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.polls.pojos.dto.PollOptionDTO;
+import com.polls.pojos.dto.PollResponseDTO;
+import com.polls.pojos.repository.PollOptionRepository;
+import com.polls.pojos.repository.PollRepository;
+import com.polls.pojos.repository.projection.OptionView;
+import com.polls.pojos.repository.projection.PollSummaryView;
+
+// Builds PollResponseDTOs from flat projections: one query for the poll rows,
+// one for all of their options. Counts come from the vote_count columns, so
+// no Poll, PollOption or Vote entity is ever loaded and the statement count
+// does not grow with options or votes.
+@Component
+public class PollReadModel {
+
+    private final PollRepository pollRepository;
+    private final PollOptionRepository pollOptionRepository;
+
+    public PollReadModel(PollRepository pollRepository,
+            PollOptionRepository pollOptionRepository) {
+        this.pollRepository = pollRepository;
+        this.pollOptionRepository = pollOptionRepository;
+    }
+
+    public Optional<PollSummaryView> findSummary(Long pollId) {
+        return pollRepository.findSummaryById(pollId);
+    }
+
+    public List<OptionView> findOptions(Long pollId) {
+        return pollOptionRepository.findViewsByPollIds(List.of(pollId));
+    }
+
+    public PollResponseDTO toDTO(PollSummaryView poll) {
+        return toDTOs(List.of(poll)).get(0);
+    }
+
+    public List<PollResponseDTO> toDTOs(List<PollSummaryView> polls) {
+
+        if (polls.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> pollIds = polls.stream().map(PollSummaryView::getId).toList();
+
+        Map<Long, List<PollOptionDTO>> optionsByPoll = pollOptionRepository
+                .findViewsByPollIds(pollIds)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        OptionView::getPollId,
+                        Collectors.mapping(this::toOptionDTO, Collectors.toList())));
+
+        return polls.stream()
+                .map(poll -> {
+                    PollResponseDTO dto = new PollResponseDTO();
+                    dto.setId(poll.getId());
+                    dto.setQuestion(poll.getQuestion());
+                    dto.setExpiryTime(poll.getExpiryTime());
+                    dto.setOptions(optionsByPoll.getOrDefault(poll.getId(), List.of()));
+                    dto.setTotalVotes(poll.getVoteCount());
+                    dto.setCreatedBy(poll.getCreatedBy());
+                    return dto;
+                })
+                .toList();
+    }
+
+    private PollOptionDTO toOptionDTO(OptionView option) {
+        PollOptionDTO dto = new PollOptionDTO();
+        dto.setId(option.getId());
+        dto.setOptionText(option.getOptionText());
+        dto.setVoteCount(option.getVoteCount());
+        return dto;
+    }
+}
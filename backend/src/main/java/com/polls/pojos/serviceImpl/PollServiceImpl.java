@@ -3,40 +3,84 @@ package com.polls.pojos.serviceImpl;
 import java.time.LocalDateTime;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.polls.pojos.Poll;
 import com.polls.pojos.PollOption;
 import com.polls.pojos.User;
+import com.polls.pojos.cache.VersionedPollCache;
+import com.polls.pojos.datasource.ReadWriteRoutingDataSource;
 import com.polls.pojos.dto.CreatePollRequestDTO;
 import com.polls.pojos.dto.MyPollDTO;
+import com.polls.pojos.dto.MyPollPageDTO;
+import com.polls.pojos.dto.PollFeedPageDTO;
 import com.polls.pojos.dto.PollOptionDTO;
 import com.polls.pojos.dto.PollResponseDTO;
+import com.polls.pojos.event.PollEvent;
 import com.polls.pojos.exception.BusinessException;
 import com.polls.pojos.exception.ResourceNotFoundException;
 
 import com.polls.pojos.repository.PollRepository;
 import com.polls.pojos.repository.UserRepository;
+import com.polls.pojos.repository.VoteRepository;
+import com.polls.pojos.repository.projection.PollSummaryView;
 import com.polls.pojos.service.PollService;
+import com.polls.pojos.tally.PollTally;
+import com.polls.pojos.tally.VoteTallyEngine;
+import com.polls.pojos.tally.VoterRegistry;
 
 @Service
 @Transactional
 public class PollServiceImpl implements PollService {
 
+    private static final int DEFAULT_FEED_PAGE_SIZE = 20;
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    private static final long EXPIRING_SOON_HOURS = 24;
+    private static final Set<String> FEED_STATUSES = Set.of("ALL", "OPEN", "CLOSED", "EXPIRING");
+    private static final int DEFAULT_DASHBOARD_PAGE_SIZE = 100;
+    private static final int MAX_DASHBOARD_PAGE_SIZE = 500;
+    // No size and no cursor: the whole list, as before paging, for clients
+    // (like the dashboard) that don't follow X-Next-Cursor
+    private static final int UNPAGED = Integer.MAX_VALUE;
+
     private final PollRepository pollRepository;
 
+    private final PollReadModel pollReadModel;
+
     private final UserRepository userRepository;
 
-    private final com.polls.pojos.repository.VoteRepository voteRepository;
+    private final VoterRegistry voterRegistry;
+
+    private final VersionedPollCache<PollResponseDTO> pollCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final VoteTallyEngine voteTallyEngine;
+
+    private final VoteRepository voteRepository;
 
     public PollServiceImpl(PollRepository pollRepository,
+            PollReadModel pollReadModel,
             UserRepository userRepository,
-            com.polls.pojos.repository.VoteRepository voteRepository) {
+            VoterRegistry voterRegistry,
+            VersionedPollCache<PollResponseDTO> pollCache,
+            ApplicationEventPublisher eventPublisher,
+            VoteTallyEngine voteTallyEngine,
+            VoteRepository voteRepository) {
         this.pollRepository = pollRepository;
+        this.pollReadModel = pollReadModel;
         this.userRepository = userRepository;
+        this.voterRegistry = voterRegistry;
+        this.pollCache = pollCache;
+        this.eventPublisher = eventPublisher;
+        this.voteTallyEngine = voteTallyEngine;
         this.voteRepository = voteRepository;
     }
 
@@ -82,88 +126,176 @@ public class PollServiceImpl implements PollService {
 
         Poll savedPoll = pollRepository.save(poll);
 
-        return mapToDTO(savedPoll);
+        eventPublisher.publishEvent(new PollEvent(
+                PollEvent.Type.CREATED, savedPoll.getId(), savedPoll.getExpiryTime()));
+        return mapToDTO(savedPoll, Map.of(), 0L);
     }
 
     // ================= GET POLL BY ID =================
+    // Read-only and lazily connected: a cache hit never takes a connection
     @Override
+    @Transactional(readOnly = true)
     public PollResponseDTO getPollById(Long pollId) {
         return getPollById(pollId, null);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public PollResponseDTO getPollById(Long pollId, Long userId) {
-        Poll poll = pollRepository.findById(pollId)
-                .orElseThrow(() -> new ResourceNotFoundException("Poll not found with id " + pollId));
 
-        // Close if expired
-        if (!poll.getClosed() && poll.getExpiryTime() != null && poll.getExpiryTime().isBefore(LocalDateTime.now())) {
-            poll.setClosed(true);
-            pollRepository.save(poll);
+        // The cached DTO is shared; hasVoted goes on a per-request copy.
+        // Loads read the primary, so a lagging replica is never cached.
+        PollResponseDTO cached = pollCache.get(pollId,
+                () -> ReadWriteRoutingDataSource.onPrimary(() -> loadPoll(pollId)));
+
+        if (userId == null) {
+            return cached;
         }
 
-        PollResponseDTO dto = mapToDTO(poll);
+        PollResponseDTO dto = copyOf(cached);
+        dto.setHasVoted(voterRegistry.hasVoted(pollId, userId));
+        return dto;
+    }
 
-        if (userId != null) {
-            boolean hasVoted = voteRepository.existsByUserIdAndPollId(userId, pollId);
-            dto.setHasVoted(hasVoted);
-        }
+    // Read-only: expired polls are closed by PollExpiryScheduler
+    private PollResponseDTO loadPoll(Long pollId) {
+        PollSummaryView poll = pollReadModel.findSummary(pollId)
+                .orElseThrow(() -> new ResourceNotFoundException("Poll not found with id " + pollId));
+
+        return pollReadModel.toDTO(poll);
+    }
 
+    private PollResponseDTO copyOf(PollResponseDTO source) {
+        PollResponseDTO dto = new PollResponseDTO();
+        dto.setId(source.getId());
+        dto.setQuestion(source.getQuestion());
+        dto.setExpiryTime(source.getExpiryTime());
+        dto.setOptions(source.getOptions());
+        dto.setTotalVotes(source.getTotalVotes());
+        dto.setCreatedBy(source.getCreatedBy());
+        dto.setHasVoted(source.isHasVoted());
         return dto;
     }
 
     // ================= GET ALL POLLS =================
+    // Kept for older clients: the newest MAX_FEED_PAGE_SIZE polls, not the
+    // whole table. New clients page through getPollFeed.
     @Override
+    @Transactional(readOnly = true)
     public List<PollResponseDTO> getAllPolls() {
+        return getPollFeed(null, null, null, MAX_FEED_PAGE_SIZE).getItems();
+    }
 
-        return pollRepository.findAll()
-                .stream()
-                .map(this::mapToDTO)
-                .toList();
+    // ================= POLL FEED =================
+    @Override
+    @Transactional(readOnly = true)
+    public PollFeedPageDTO getPollFeed(String status, Long createdBy, Long cursor, Integer size) {
+
+        String filter = status == null ? "ALL" : status.trim().toUpperCase();
+        if (!FEED_STATUSES.contains(filter)) {
+            throw new BusinessException("Unknown poll status " + status);
+        }
+
+        int pageSize = size == null
+                ? DEFAULT_FEED_PAGE_SIZE
+                : Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+
+        LocalDateTime now = LocalDateTime.now();
+
+        // One extra row tells us whether there is a next page
+        List<PollSummaryView> rows = pollRepository.findFeedPage(
+                cursor == null ? Long.MAX_VALUE : cursor,
+                createdBy,
+                filter,
+                now,
+                now.plusHours(EXPIRING_SOON_HOURS),
+                Limit.of(pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        PollFeedPageDTO page = new PollFeedPageDTO();
+        page.setItems(pollReadModel.toDTOs(rows));
+        page.setNextCursor(hasMore ? rows.get(rows.size() - 1).getId() : null);
+        return page;
     }
 
+    // ================= GET POLLS VOTED BY USER =================
     @Override
-    public List<MyPollDTO> getPollsVotedByUser(Long userId) {
-        List<Poll> polls = pollRepository.findVotedPollsByUserId(userId);
-        return polls.stream()
-                .map(this::mapToMyPollDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public MyPollPageDTO getPollsVotedByUser(Long userId, Long cursor, Integer size) {
+
+        int pageSize = dashboardPageSize(size, cursor);
+
+        List<MyPollDTO> rows = pollRepository.findVotedPollsByUserId(
+                userId, cursor == null ? Long.MAX_VALUE : cursor, dashboardLimit(pageSize));
+
+        return toMyPollPage(rows, pageSize);
     }
 
     // ================= GET POLLS BY USER =================
     @Override
-    public List<MyPollDTO> getPollsByUser(Long userId) {
+    @Transactional(readOnly = true)
+    public MyPollPageDTO getPollsByUser(Long userId, Long cursor, Integer size) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + userId));
+        int pageSize = dashboardPageSize(size, cursor);
 
-        return pollRepository.findByCreatedBy(user)
-                .stream()
-                .map(this::mapToMyPollDTO)
-                .toList();
+        List<MyPollDTO> rows = pollRepository.findMyPollsByUserId(
+                userId, cursor == null ? Long.MAX_VALUE : cursor, dashboardLimit(pageSize));
+
+        // Only pay for the user lookup when there is nothing to show
+        if (rows.isEmpty() && cursor == null && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id " + userId);
+        }
+
+        return toMyPollPage(rows, pageSize);
     }
 
-    private MyPollDTO mapToMyPollDTO(Poll poll) {
-        MyPollDTO dto = new MyPollDTO();
-        dto.setId(poll.getId());
-        dto.setQuestion(poll.getQuestion());
+    static boolean isClosed(Boolean closed, LocalDateTime expiryTime, LocalDateTime now) {
+        return Boolean.TRUE.equals(closed) || (expiryTime != null && !expiryTime.isAfter(now));
+    }
 
-        dto.setExpiryTime(poll.getExpiryTime());
-        dto.setClosed(poll.getClosed());
-        dto.setCreatedAt(poll.getCreatedAt());
+    private int dashboardPageSize(Integer size, Long cursor) {
+        if (size == null) {
+            return cursor == null ? UNPAGED : DEFAULT_DASHBOARD_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_DASHBOARD_PAGE_SIZE));
+    }
 
-        // Vote Count
-        long count = 0;
-        if (poll.getOptions() != null) {
-            count = voteRepository.countByPollId(poll.getId());
+    // One extra row tells whether there is a next page
+    private static Limit dashboardLimit(int pageSize) {
+        return pageSize == UNPAGED ? Limit.unlimited() : Limit.of(pageSize + 1);
+    }
+
+    // Rows were fetched with one extra to detect a next page
+    private MyPollPageDTO toMyPollPage(List<MyPollDTO> rows, int pageSize) {
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
         }
-        dto.setVoteCount(count);
 
-        return dto;
+        // The closed column lags expiry by up to one sweep; report what it will be
+        LocalDateTime now = LocalDateTime.now();
+        rows.forEach(row -> row.setClosed(isClosed(row.getClosed(), row.getExpiryTime(), now)));
+
+        MyPollPageDTO page = new MyPollPageDTO();
+        page.setItems(rows);
+        page.setNextCursor(hasMore ? rows.get(rows.size() - 1).getId() : null);
+        return page;
     }
 
     // ================= DTO MAPPER =================
+    // Counts come from the tally: a Poll served from the second-level cache
+    // may carry an outdated vote_count
     private PollResponseDTO mapToDTO(Poll poll) {
+        PollTally tally = voteTallyEngine.get(poll.getId());
+        return mapToDTO(poll, tally.snapshot(), tally.total());
+    }
+
+    private PollResponseDTO mapToDTO(Poll poll, Map<Long, Long> counts, long totalVotes) {
 
         PollResponseDTO dto = new PollResponseDTO();
         dto.setId(poll.getId());
@@ -176,22 +308,12 @@ public class PollServiceImpl implements PollService {
                     PollOptionDTO o = new PollOptionDTO();
                     o.setId(option.getId());
                     o.setOptionText(option.getOptionText());
-                    // Assuming PollOption has a collection of votes "getVotes()"
-                    // If PollOption doesn't have getVotes yet (need to check), we might need to add
-                    // it or fetch count differently.
-                    // Based on previous assumptions, PollOption usually has OneToMany List<Vote>
-                    // votes;
-                    o.setVoteCount(option.getVotes() != null ? (long) option.getVotes().size() : 0L);
+                    o.setVoteCount(counts.getOrDefault(option.getId(), 0L));
                     return o;
                 })
                 .toList();
 
         dto.setOptions(options);
-
-        // Calculate total votes
-        long totalVotes = options.stream()
-                .mapToLong(PollOptionDTO::getVoteCount)
-                .sum();
         dto.setTotalVotes(totalVotes);
 
         if (poll.getCreatedBy() != null) {
@@ -204,7 +326,7 @@ public class PollServiceImpl implements PollService {
     @Override
     public PollResponseDTO closePoll(Long pollId, Long userId) {
 
-        Poll poll = pollRepository.findById(pollId)
+        Poll poll = pollRepository.findWithOwnerAndOptionsById(pollId)
                 .orElseThrow(() -> new ResourceNotFoundException("Poll not found with id " + pollId));
 
         User user = userRepository.findById(userId)
@@ -221,14 +343,20 @@ public class PollServiceImpl implements PollService {
             throw new BusinessException("Poll is already closed");
         }
 
-        poll.setClosed(true);
-        return mapToDTO(pollRepository.save(poll));
+        // The entity may be cached from before another node closed the poll:
+        // the row decides, and the entity itself is never saved
+        if (pollRepository.closeIfOpen(pollId).isEmpty()) {
+            throw new BusinessException("Poll is already closed");
+        }
+
+        eventPublisher.publishEvent(new PollEvent(PollEvent.Type.CLOSED, pollId));
+        return mapToDTO(poll);
     }
 
     @Override
     public PollResponseDTO updateExpiry(Long pollId, Long userId, LocalDateTime expiryTime) {
 
-        Poll poll = pollRepository.findById(pollId)
+        Poll poll = pollRepository.findWithOwnerAndOptionsById(pollId)
                 .orElseThrow(() -> new ResourceNotFoundException("Poll not found with id " + pollId));
 
         User user = userRepository.findById(userId)
@@ -241,7 +369,7 @@ public class PollServiceImpl implements PollService {
             throw new BusinessException("Not authorized to update expiry");
         }
 
-        if (Boolean.TRUE.equals(poll.getClosed())) {
+        if (isClosed(poll.getClosed(), poll.getExpiryTime(), LocalDateTime.now())) {
             throw new BusinessException("Cannot update expiry for a closed poll");
         }
 
@@ -253,8 +381,16 @@ public class PollServiceImpl implements PollService {
             throw new BusinessException("Expiry time must be in the future");
         }
 
-        poll.setExpiryTime(expiryTime);
-        return mapToDTO(pollRepository.save(poll));
+        // A full-entity save of a stale cached Poll would write closed=false
+        // back over a close made elsewhere
+        if (pollRepository.updateExpiryIfOpen(pollId, expiryTime, LocalDateTime.now()).isEmpty()) {
+            throw new BusinessException("Cannot update expiry for a closed poll");
+        }
+
+        eventPublisher.publishEvent(new PollEvent(PollEvent.Type.EXPIRY_UPDATED, pollId, expiryTime));
+        PollResponseDTO dto = mapToDTO(poll);
+        dto.setExpiryTime(expiryTime);
+        return dto;
     }
 
     @Override
@@ -273,12 +409,15 @@ public class PollServiceImpl implements PollService {
             throw new BusinessException("Not authorized to delete this poll");
         }
 
-        // prevent delete if votes exist
-        if (!poll.getVotes().isEmpty()) {
+        // prevent delete if votes exist (one index probe, votes are not loaded),
+        // including votes the archiver moved out of the votes table
+        if (voteRepository.existsByPollId(pollId) || voteRepository.existsArchivedByPollId(pollId)) {
             throw new BusinessException("Cannot delete poll after votes are cast");
         }
 
         pollRepository.delete(poll);
+
+        eventPublisher.publishEvent(new PollEvent(PollEvent.Type.DELETED, pollId));
     }
 
 }
@@ -12,6 +12,7 @@ import com.polls.pojos.dto.UserResponseDTO;
 import com.polls.pojos.exception.BusinessException;
 import com.polls.pojos.exception.ResourceNotFoundException;
 import com.polls.pojos.repository.UserRepository;
+import com.polls.pojos.security.TokenRevocations;
 import com.polls.pojos.service.UserService;
 
 @Service
@@ -20,8 +21,11 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    private final TokenRevocations tokenRevocations;
+
+    public UserServiceImpl(UserRepository userRepository, TokenRevocations tokenRevocations) {
         this.userRepository = userRepository;
+        this.tokenRevocations = tokenRevocations;
     }
 
     // ================= REGISTER =================
@@ -73,6 +77,13 @@ public class UserServiceImpl implements UserService {
         // if (!user.getUsername().equals(request.getUsername()) &&
         // userRepository.existsByUsername(request.getUsername())) ...
 
+        // Tokens carry the email as subject; issued ones must not outlive it.
+        // Stored with the change so other nodes and restarts see it too, and
+        // enforced on this node once the change commits.
+        if (!user.getEmail().equals(request.getEmail())) {
+            user.setTokensRevokedAt(tokenRevocations.revoke(userId));
+        }
+
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
 
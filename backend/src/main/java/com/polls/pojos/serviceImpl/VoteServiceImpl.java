@@ -3,43 +3,57 @@ package com.polls.pojos.serviceImpl;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.polls.pojos.Poll;
-import com.polls.pojos.PollOption;
-import com.polls.pojos.User;
 import com.polls.pojos.Vote;
+import com.polls.pojos.cache.VersionedPollCache;
+import com.polls.pojos.datasource.ReadWriteRoutingDataSource;
 import com.polls.pojos.dto.PollResultDTO;
 import com.polls.pojos.dto.PollResultResponseDTO;
 import com.polls.pojos.dto.VoteResponseDTO;
+import com.polls.pojos.event.VoteEvent;
 import com.polls.pojos.exception.BusinessException;
 import com.polls.pojos.exception.ResourceNotFoundException;
 import com.polls.pojos.repository.PollOptionRepository;
 import com.polls.pojos.repository.PollRepository;
-import com.polls.pojos.repository.UserRepository;
 import com.polls.pojos.repository.VoteRepository;
+import com.polls.pojos.repository.projection.PollSummaryView;
+import com.polls.pojos.repository.projection.VoteInsertResult;
 import com.polls.pojos.service.VoteService;
+import com.polls.pojos.tally.PollTally;
+import com.polls.pojos.tally.VoteTallyEngine;
 
 @Service
 @Transactional
 public class VoteServiceImpl implements VoteService {
 
     private final VoteRepository voteRepository;
-    private final UserRepository userRepository;
     private final PollRepository pollRepository;
     private final PollOptionRepository pollOptionRepository;
+    private final PollReadModel pollReadModel;
+    private final VoteTallyEngine voteTallyEngine;
+    private final VersionedPollCache<PollResultResponseDTO> pollResultsCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public VoteServiceImpl(
             VoteRepository voteRepository,
-            UserRepository userRepository,
             PollRepository pollRepository,
-            PollOptionRepository pollOptionRepository) {
+            PollOptionRepository pollOptionRepository,
+            PollReadModel pollReadModel,
+            VoteTallyEngine voteTallyEngine,
+            VersionedPollCache<PollResultResponseDTO> pollResultsCache,
+            ApplicationEventPublisher eventPublisher) {
 
         this.voteRepository = voteRepository;
-        this.userRepository = userRepository;
         this.pollRepository = pollRepository;
         this.pollOptionRepository = pollOptionRepository;
+        this.pollReadModel = pollReadModel;
+        this.voteTallyEngine = voteTallyEngine;
+        this.pollResultsCache = pollResultsCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // ================= CAST VOTE =================
@@ -50,71 +64,48 @@ public class VoteServiceImpl implements VoteService {
         Long pollId = vote.getPoll().getId();
         Long optionId = vote.getOption().getId();
 
-        // 1️ Validate user
-        User user = userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("User not found with id " + userId));
-
-        // 2️ Validate poll
-        Poll poll = pollRepository.findById(pollId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Poll not found with id " + pollId));
-
-        // 3️ Prevent vote if poll closed
-        if (Boolean.TRUE.equals(poll.getClosed())) {
-            throw new BusinessException("Poll is already closed");
-        }
-
-        // 4️ Prevent vote after expiry (NULL safe)
-        if (poll.getExpiryTime() != null &&
-                poll.getExpiryTime().isBefore(LocalDateTime.now())) {
-            throw new BusinessException("Voting time has expired");
-        }
+        // Validate, insert and bump counters in a single round trip
+        VoteInsertResult result =
+                voteRepository.insertVote(pollId, optionId, userId, LocalDateTime.now());
 
-        // 5️ Validate option
-        PollOption option = pollOptionRepository.findById(optionId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Option not found with id " + optionId));
-
-        if (!option.getPoll().getId().equals(pollId)) {
-            throw new BusinessException("Option does not belong to this poll");
+        if (result.getVoteId() == null) {
+            throw result.rejection(pollId, optionId, userId);
         }
 
-        // 6️⃣ Prevent duplicate vote
-        if (voteRepository.existsByUserIdAndPollId(userId, pollId)) {
-            throw new BusinessException("User has already voted");
-        }
-
-        // 7️⃣ Save vote
-        vote.setUser(user);
-        vote.setPoll(poll);
-        vote.setOption(option);
-
-        Vote savedVote = voteRepository.save(vote);
+        eventPublisher.publishEvent(VoteEvent.cast(pollId, optionId, userId));
 
         VoteResponseDTO dto = new VoteResponseDTO();
-        dto.setId(savedVote.getId());
+        dto.setId(result.getVoteId());
         dto.setMessage("Vote cast successfully");
 
         return dto;
     }
 
     // ================= GET POLL RESULTS =================
+    // Read-only and lazily connected: a cache hit never takes a connection.
+    // Loads read the primary, so a lagging replica is never cached.
     @Override
+    @Transactional(readOnly = true)
     public PollResultResponseDTO getPollResults(Long pollId) {
+        return pollResultsCache.get(pollId,
+                () -> ReadWriteRoutingDataSource.onPrimary(() -> loadPollResults(pollId)));
+    }
 
-        Poll poll = pollRepository.findById(pollId)
+    private PollResultResponseDTO loadPollResults(Long pollId) {
+
+        PollSummaryView poll = pollReadModel.findSummary(pollId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Poll not found with id " + pollId));
 
-        long totalVotes = voteRepository.countByPollId(pollId);
+        // Counts come from the in-memory tally, not from COUNT queries
+        PollTally tally = voteTallyEngine.get(pollId);
+        long totalVotes = tally.total();
 
-        List<PollResultDTO> results = poll.getOptions()
+        List<PollResultDTO> results = pollReadModel.findOptions(pollId)
                 .stream()
                 .map(option -> {
 
-                    long optionVotes =
-                            voteRepository.countByPollIdAndOptionId(pollId, option.getId());
+                    long optionVotes = tally.count(option.getId());
 
                     double percentage = totalVotes == 0
                             ? 0.0
@@ -146,18 +137,21 @@ public class VoteServiceImpl implements VoteService {
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Poll not found with id " + pollId));
 
-        // 2️ Prevent delete if poll is closed
-        if (Boolean.TRUE.equals(poll.getClosed())) {
+        // 2️ Prevent delete if poll is closed (or expired and not yet swept)
+        if (PollServiceImpl.isClosed(poll.getClosed(), poll.getExpiryTime(), LocalDateTime.now())) {
             throw new BusinessException("Cannot delete vote after poll is closed");
         }
 
-        // 3️ Find user's vote
-        Vote vote = voteRepository.findByPollIdAndUserId(pollId, userId)
+        // 3️ Delete user's vote in one statement, pruned to the poll's partition
+        Long optionId = voteRepository.deleteVote(pollId, userId)
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Vote not found for this user"));
 
-        // 4️ Delete vote
-        voteRepository.delete(vote);
+        pollOptionRepository.adjustVoteCount(optionId, -1);
+        pollRepository.adjustVoteCount(pollId, -1);
+
+        eventPublisher.publishEvent(
+                VoteEvent.deleted(pollId, optionId, userId));
     }
 
 }
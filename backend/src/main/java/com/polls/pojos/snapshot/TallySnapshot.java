@@ -0,0 +1,174 @@
+package com.polls.pojos.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+// Point-in-time copy of the cached tallies and voter sets.
+//
+//   magic (4) | version (1) | watermark | written at (epoch millis) | poll count
+//   per poll:  poll id | option count | (option id | votes)* | voter count + 1 | voter id deltas*
+//   CRC32C of everything before it (4)
+//
+// Every number after the version is an unsigned LEB128 varint. Voter ids
+// are sorted and stored as gaps from the previous id, so dense id ranges
+// take a byte or two per voter. A voter count of 0 means the poll's voter
+// set was not cached. The watermark is the votes id sequence's value
+// before the caches were read: every vote with a higher id is caught up
+// from the database on restore.
+record TallySnapshot(long watermark, long writtenAt, List<PollState> polls) {
+
+    // voterIds is null when the poll's voter set was not cached
+    record PollState(long pollId, Map<Long, Long> counts, long[] voterIds) {
+    }
+
+    private static final int MAGIC = 0x504F4C53;
+    private static final byte VERSION = 1;
+
+    void writeTo(Path file) throws IOException {
+        Output out = new Output();
+        out.int32(MAGIC);
+        out.raw(VERSION);
+        out.varint(watermark);
+        out.varint(writtenAt);
+        out.varint(polls.size());
+
+        for (PollState poll : polls) {
+            out.varint(poll.pollId());
+            out.varint(poll.counts().size());
+            poll.counts().forEach((optionId, votes) -> {
+                out.varint(optionId);
+                out.varint(votes);
+            });
+
+            if (poll.voterIds() == null) {
+                out.varint(0);
+                continue;
+            }
+            long[] voters = poll.voterIds().clone();
+            Arrays.sort(voters);
+            out.varint(voters.length + 1L);
+            long previous = 0;
+            for (long voter : voters) {
+                out.varint(voter - previous);
+                previous = voter;
+            }
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(out.bytes, 0, out.size);
+        out.int32((int) crc.getValue());
+
+        // Written aside and moved over the previous snapshot in one step
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer data = ByteBuffer.wrap(out.bytes, 0, out.size);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Throws IllegalStateException for a torn, corrupt or foreign file
+    static TallySnapshot readFrom(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < 9) {
+            throw new IllegalStateException("Snapshot too short");
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes, 0, bytes.length - 4);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length - 4);
+        if (ByteBuffer.wrap(bytes).getInt(bytes.length - 4) != (int) crc.getValue()) {
+            throw new IllegalStateException("Snapshot checksum mismatch");
+        }
+        if (in.getInt() != MAGIC || in.get() != VERSION) {
+            throw new IllegalStateException("Not a version " + VERSION + " tally snapshot");
+        }
+
+        long watermark = varint(in);
+        long writtenAt = varint(in);
+        int pollCount = (int) varint(in);
+
+        List<PollState> polls = new ArrayList<>(pollCount);
+        for (int p = 0; p < pollCount; p++) {
+            long pollId = varint(in);
+
+            int optionCount = (int) varint(in);
+            Map<Long, Long> counts = new LinkedHashMap<>();
+            for (int o = 0; o < optionCount; o++) {
+                counts.put(varint(in), varint(in));
+            }
+
+            long[] voters = null;
+            int voterCount = (int) varint(in) - 1;
+            if (voterCount >= 0) {
+                voters = new long[voterCount];
+                long previous = 0;
+                for (int v = 0; v < voterCount; v++) {
+                    previous += varint(in);
+                    voters[v] = previous;
+                }
+            }
+            polls.add(new PollState(pollId, counts, voters));
+        }
+        return new TallySnapshot(watermark, writtenAt, polls);
+    }
+
+    private static long varint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) {
+                throw new IllegalStateException("Snapshot truncated");
+            }
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in snapshot");
+    }
+
+    // Growable byte array; ByteArrayOutputStream would copy it again on toByteArray
+    private static final class Output {
+
+        private byte[] bytes = new byte[8192];
+        private int size;
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                raw((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            raw((byte) value);
+        }
+
+        void int32(int value) {
+            raw((byte) (value >>> 24));
+            raw((byte) (value >>> 16));
+            raw((byte) (value >>> 8));
+            raw((byte) value);
+        }
+
+        void raw(byte b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = b;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.polls.pojos.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.polls.pojos.datasource.ReadWriteRoutingDataSource;
+import com.polls.pojos.repository.VoteRepository;
+import com.polls.pojos.repository.projection.VoteKeyView;
+import com.polls.pojos.snapshot.TallySnapshot.PollState;
+import com.polls.pojos.tally.VoteTallyEngine;
+import com.polls.pojos.tally.VoterRegistry;
+
+// Warms the tallies and voter sets from the last snapshot at startup.
+// Runs as an ApplicationRunner: the readiness probe only reports
+// ACCEPTING_TRAFFIC once every runner has returned, so a node is not sent
+// traffic until its hot polls are warm.
+//
+// Per batch of polls: votes above the snapshot watermark are read back and
+// added to the snapshot's voters (a user already present is skipped), then
+// the result is checked against the vote_count columns. Tallies are always
+// installed from the columns. A voter set is installed only when the
+// snapshot plus caught-up votes adds up to the same counts; otherwise a
+// vote was deleted, or committed below the watermark after the snapshot,
+// and the set is left to load lazily from the database. Polls a request
+// has seeded in the meantime are skipped.
+//
+// Only with polls.tally.restore=snapshot. The journal (the default) restores
+// every poll at startup and would leave nothing for a snapshot to warm.
+@Component
+@ConditionalOnProperty(name = "polls.tally.restore", havingValue = "snapshot")
+public class TallySnapshotLoader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TallySnapshotLoader.class);
+
+    private final VoteTallyEngine voteTallyEngine;
+    private final VoterRegistry voterRegistry;
+    private final VoteRepository voteRepository;
+
+    private final Path file;
+    private final int batchSize;
+
+    public TallySnapshotLoader(VoteTallyEngine voteTallyEngine,
+            VoterRegistry voterRegistry,
+            VoteRepository voteRepository,
+            @Value("${polls.snapshot.file:./data/tallies.snapshot}") String file,
+            @Value("${polls.snapshot.restore-batch-size:500}") int batchSize) {
+        this.voteTallyEngine = voteTallyEngine;
+        this.voterRegistry = voterRegistry;
+        this.voteRepository = voteRepository;
+        this.file = Path.of(file);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long started = System.nanoTime();
+
+        TallySnapshot snapshot;
+        try {
+            snapshot = TallySnapshot.readFrom(file);
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Ignoring unreadable tally snapshot {}", file, e);
+            return;
+        }
+
+        Set<Long> cached = voteTallyEngine.cachedPollIds();
+        List<PollState> pending = snapshot.polls().stream()
+                .filter(poll -> !cached.contains(poll.pollId()))
+                .toList();
+
+        int voterSets = 0;
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            voterSets += restore(pending.subList(from, Math.min(from + batchSize, pending.size())),
+                    snapshot.watermark());
+        }
+
+        log.info("Warmed {} tallies and {} voter sets from the snapshot of {} in {} ms",
+                pending.size(), voterSets, file, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Returns the number of voter sets installed
+    private int restore(List<PollState> batch, long watermark) {
+        List<Long> pollIds = batch.stream().map(PollState::pollId).toList();
+
+        // Primary only, like every other load: replica lag would fail the check
+        List<VoteKeyView> newer = ReadWriteRoutingDataSource.onPrimary(
+                () -> voteRepository.findVotesAfter(pollIds, watermark));
+        Map<Long, Map<Long, Long>> expected = voteTallyEngine.loadCounts(pollIds);
+
+        Map<Long, List<VoteKeyView>> newerByPoll = new HashMap<>();
+        newer.forEach(vote -> newerByPoll.computeIfAbsent(vote.getPollId(), id -> new ArrayList<>()).add(vote));
+
+        int installed = 0;
+        for (PollState poll : batch) {
+            Map<Long, Long> columns = expected.getOrDefault(poll.pollId(), Map.of());
+            voteTallyEngine.restore(poll.pollId(), columns);
+
+            if (poll.voterIds() == null) {
+                continue;
+            }
+            long[] voters = catchUp(poll, newerByPoll.getOrDefault(poll.pollId(), List.of()), columns);
+            if (voters != null) {
+                voterRegistry.restore(poll.pollId(), voters);
+                installed++;
+            }
+        }
+        return installed;
+    }
+
+    // Snapshot voters plus newer votes, or null when the counts disagree
+    private static long[] catchUp(PollState poll, List<VoteKeyView> newer, Map<Long, Long> columns) {
+        long[] known = poll.voterIds(); // sorted by TallySnapshot
+        Map<Long, Long> counts = new HashMap<>(poll.counts());
+        Set<Long> added = new HashSet<>();
+
+        for (VoteKeyView vote : newer) {
+            if (Arrays.binarySearch(known, vote.getUserId()) < 0 && added.add(vote.getUserId())) {
+                counts.merge(vote.getOptionId(), 1L, Long::sum);
+            }
+        }
+
+        if (!sameCounts(counts, columns)) {
+            return null;
+        }
+
+        long[] voters = Arrays.copyOf(known, known.length + added.size());
+        int next = known.length;
+        for (Long userId : added) {
+            voters[next++] = userId;
+        }
+        return voters;
+    }
+
+    // Missing options count as zero on either side
+    private static boolean sameCounts(Map<Long, Long> a, Map<Long, Long> b) {
+        Set<Long> options = new HashSet<>(a.keySet());
+        options.addAll(b.keySet());
+        for (Long optionId : options) {
+            if (!Objects.equals(a.getOrDefault(optionId, 0L), b.getOrDefault(optionId, 0L))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
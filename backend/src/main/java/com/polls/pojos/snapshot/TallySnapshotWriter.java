@@ -0,0 +1,94 @@
+package com.polls.pojos.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.polls.pojos.snapshot.TallySnapshot.PollState;
+import com.polls.pojos.tally.VoteTallyEngine;
+import com.polls.pojos.tally.VoterRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Periodically writes the cached tallies and voter sets to the snapshot file
+// (see TallySnapshot), and once more on shutdown, so the polls that were hot
+// before a restart are warm again before the node reports ready.
+// Only with polls.tally.restore=snapshot (see TallySnapshotLoader).
+@Component
+@ConditionalOnProperty(name = "polls.tally.restore", havingValue = "snapshot")
+public class TallySnapshotWriter implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TallySnapshotWriter.class);
+
+    // Highest id handed out so far; a vote id can't be above it, and ids at
+    // or below it that commit later are caught by the loader's count check
+    private static final String WATERMARK_SQL =
+            "SELECT CASE WHEN is_called THEN last_value ELSE last_value - 1 END FROM votes_id_seq";
+
+    private final VoteTallyEngine voteTallyEngine;
+    private final VoterRegistry voterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Path file;
+
+    private final Timer writeTimer;
+
+    public TallySnapshotWriter(VoteTallyEngine voteTallyEngine,
+            VoterRegistry voterRegistry,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${polls.snapshot.file:./data/tallies.snapshot}") String file) {
+        this.voteTallyEngine = voteTallyEngine;
+        this.voterRegistry = voterRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.file = Path.of(file);
+        this.writeTimer = Timer.builder("polls.snapshot.write").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${polls.snapshot.interval-ms:60000}",
+            initialDelayString = "${polls.snapshot.interval-ms:60000}")
+    public void write() {
+        long started = System.nanoTime();
+        try {
+            // Read before the caches, so every vote the caches miss is above it
+            Long watermark = jdbcTemplate.queryForObject(WATERMARK_SQL, Long.class);
+
+            List<PollState> polls = new ArrayList<>();
+            for (Long pollId : voteTallyEngine.cachedPollIds()) {
+                Map<Long, Long> counts = voteTallyEngine.cachedCounts(pollId);
+                if (counts != null) {
+                    polls.add(new PollState(pollId, counts, voterRegistry.cachedVoterIds(pollId)));
+                }
+            }
+
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            new TallySnapshot(watermark, System.currentTimeMillis(), polls).writeTo(file);
+
+            writeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("Wrote tally snapshot of {} polls up to vote {}", polls.size(), watermark);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write tally snapshot {}", file, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        write();
+    }
+}
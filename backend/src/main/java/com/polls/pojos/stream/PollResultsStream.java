@@ -0,0 +1,358 @@
+package com.polls.pojos.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.polls.pojos.cache.PollVersions;
+import com.polls.pojos.dto.PollResultResponseDTO;
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.exception.ServiceBusyException;
+import com.polls.pojos.service.VoteService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.json.JsonMapper;
+
+// Live results over Server-Sent Events.
+// Commits only mark a poll dirty; a fixed tick loads each dirty poll's
+// results once, serializes them once and hands the same frame to every
+// subscriber, so the push rate per poll is bounded by the tick however
+// fast votes arrive. Connections are async servlet requests and hold no
+// thread between pushes; writes run on a small sender pool. The tick has
+// its own thread rather than the shared @Scheduled one, so a slow sweep or
+// relay elsewhere never delays a push.
+//
+// A send blocks until the client takes the bytes, and the servlet API has no
+// per-request write timeout (Tomcat gives up only after the connector's
+// connection timeout). So a subscriber whose send has run for longer than
+// the write timeout is dropped, and the pool starts a thread in place of the
+// one it pins: a few stalled connections cannot hold back everyone else.
+@Component
+public class PollResultsStream {
+
+    private static final Logger log = LoggerFactory.getLogger(PollResultsStream.class);
+
+    private final VoteService voteService;
+    private final PollVersions versions;
+    private final JsonMapper jsonMapper;
+
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final long writeTimeoutNanos;
+    private final int senderThreads;
+    private final int maxStalledSenders;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Senders pinned by a dropped subscriber's unfinished send; guarded by this
+    private int stalledSenders;
+
+    private final ThreadPoolExecutor sender;
+    private final ScheduledExecutorService ticker;
+
+    public PollResultsStream(VoteService voteService,
+            PollVersions versions,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${polls.results.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${polls.results.stream.max-subscribers:50000}") int maxSubscribers,
+            @Value("${polls.results.stream.sender-threads:8}") int senderThreads,
+            @Value("${polls.results.stream.interval-ms:500}") long intervalMs,
+            @Value("${polls.results.stream.heartbeat-ms:15000}") long heartbeatMs,
+            @Value("${polls.results.stream.write-timeout-ms:5000}") long writeTimeoutMs,
+            @Value("${polls.results.stream.max-stalled-senders:64}") int maxStalledSenders) {
+        this.voteService = voteService;
+        this.versions = versions;
+        this.jsonMapper = jsonMapper;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.senderThreads = senderThreads;
+        this.maxStalledSenders = maxStalledSenders;
+        // Runs senderThreads threads; the core size grows only while
+        // stalled sends pin some of them
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads + maxStalledSenders,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "results-stream-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "results-stream-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(() -> run("flush", this::flush),
+                intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(() -> run("heartbeat", this::heartbeat),
+                heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(1, writeTimeoutMs / 2);
+        ticker.scheduleWithFixedDelay(() -> run("write check", this::dropStalled),
+                checkMs, checkMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("polls.results.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("polls.results.stream.stalled-senders", this, stream -> stream.stalledSenders())
+                .register(meterRegistry);
+    }
+
+    // ================= SUBSCRIBE =================
+
+    public SseEmitter subscribe(Long pollId) {
+
+        // Loaded before registering so an unknown poll fails with 404
+        Set<DataWithMediaType> initial = frame(pollId);
+
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceBusyException("Too many live result subscribers", 5);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(pollId, emitter);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        subscribers.computeIfAbsent(pollId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.offer(initial);
+        return emitter;
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.removed.compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.pollId, (id, group) -> {
+            group.remove(subscriber);
+            return group.isEmpty() ? null : group;
+        });
+    }
+
+    // ================= EVENTS =================
+
+    @TransactionalEventListener
+    public void onVote(VoteEvent event) {
+        markDirty(event.getPollId());
+    }
+
+    @TransactionalEventListener
+    public void onPollChange(PollEvent event) {
+        if (event.getType() == PollEvent.Type.DELETED) {
+            Set<Subscriber> group = subscribers.remove(event.getPollId());
+            if (group != null) {
+                group.forEach(subscriber -> subscriber.emitter.complete());
+            }
+            return;
+        }
+        markDirty(event.getPollId());
+    }
+
+    private void markDirty(Long pollId) {
+        if (subscribers.containsKey(pollId)) {
+            dirty.add(pollId);
+        }
+    }
+
+    // ================= PUSH =================
+
+    // A task that throws is never run again, so nothing may escape
+    private static void run(String task, Runnable body) {
+        try {
+            body.run();
+        } catch (RuntimeException e) {
+            log.error("Results stream {} failed", task, e);
+        }
+    }
+
+    void flush() {
+        List<Long> pollIds = new ArrayList<>(dirty);
+        dirty.removeAll(pollIds);
+
+        for (Long pollId : pollIds) {
+            Set<Subscriber> group = subscribers.get(pollId);
+            if (group == null || group.isEmpty()) {
+                continue;
+            }
+
+            Set<DataWithMediaType> frame;
+            try {
+                frame = frame(pollId);
+            } catch (RuntimeException e) {
+                log.warn("Could not load results for poll {}: {}", pollId, e.getMessage());
+                continue;
+            }
+
+            for (Subscriber subscriber : group) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies that drop silent streams
+    void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(group -> group.forEach(subscriber -> subscriber.offerPing(ping)));
+    }
+
+    void dropStalled() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(group -> group.forEach(subscriber -> {
+            if (subscriber.sending && now - subscriber.sendingSince > writeTimeoutNanos) {
+                subscriber.stall();
+            }
+        }));
+    }
+
+    private synchronized int stalledSenders() {
+        return stalledSenders;
+    }
+
+    private synchronized void adjustStalledSenders(int delta) {
+        stalledSenders += delta;
+        // Growing the core starts threads for whatever is queued
+        sender.setCorePoolSize(senderThreads + Math.min(stalledSenders, maxStalledSenders));
+    }
+
+    // Version is read first so the event id never claims newer data than it carries
+    private Set<DataWithMediaType> frame(Long pollId) {
+        long version = versions.current(pollId);
+        PollResultResponseDTO results = voteService.getPollResults(pollId);
+
+        return SseEmitter.event()
+                .id(Long.toString(version))
+                .name("results")
+                .data(jsonMapper.writeValueAsString(results), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(group -> group.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    // ================= SUBSCRIBER =================
+
+    // Holds only the latest unsent frame: a slow client skips intermediate
+    // snapshots instead of queueing them
+    private final class Subscriber {
+
+        private final Long pollId;
+        private final SseEmitter emitter;
+
+        private final AtomicReference<Set<DataWithMediaType>> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        // Guarded by this; read without the lock only to skip idle subscribers
+        private volatile long sendingSince;
+        private volatile boolean sending;
+        private boolean stalled;
+
+        private Subscriber(Long pollId, SseEmitter emitter) {
+            this.pollId = pollId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            pending.set(frame);
+            scheduleDrain();
+        }
+
+        // Only into an empty slot: a ping must never replace unsent results,
+        // or a slow client would stay stale once the poll goes quiet
+        void offerPing(Set<DataWithMediaType> ping) {
+            if (pending.compareAndSet(null, ping)) {
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        // Called by the write check; counts a pinned sender only while the
+        // send is still running, so the sending thread always gives it back
+        void stall() {
+            synchronized (this) {
+                if (!sending || stalled) {
+                    return;
+                }
+                stalled = true;
+                adjustStalledSenders(1);
+            }
+            log.debug("Dropping results subscriber for poll {}: send exceeded the write timeout", pollId);
+            remove(this);
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> frame;
+                while ((frame = pending.getAndSet(null)) != null) {
+                    Exception failure = null;
+                    synchronized (this) {
+                        sendingSince = System.nanoTime();
+                        sending = true;
+                    }
+                    try {
+                        emitter.send(frame);
+                    } catch (IOException | IllegalStateException e) {
+                        failure = e;
+                    }
+                    boolean dropped;
+                    synchronized (this) {
+                        sending = false;
+                        dropped = stalled;
+                    }
+
+                    if (failure != null || dropped) {
+                        remove(this);
+                        if (dropped) {
+                            adjustStalledSenders(-1);
+                        }
+                        if (failure != null) {
+                            emitter.completeWithError(failure);
+                        } else {
+                            emitter.complete();
+                        }
+                        pending.set(null);
+                        draining.set(false);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (pending.get() != null && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.polls.pojos.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.repository.PollRepository;
+import com.polls.pojos.tally.PollTally;
+import com.polls.pojos.tally.VoteTallyEngine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+// WebSocket fan-out at /ws/polls. A client subscribes to any number of polls
+// (up to a cap) and receives count frames for all of them on one socket:
+//
+//   -> {"action":"subscribe","pollIds":[1,2,3]}
+//   -> {"action":"unsubscribe","pollIds":[2]}
+//   <- {"type":"snapshot","pollId":1,"total":12,"counts":{"4":7,"5":5}}
+//   <- {"type":"delta","pollId":1,"total":13,"counts":{"5":6}}
+//
+// Deltas carry the new absolute count of each option that changed since the
+// previous tick. Frames are built once per poll per tick on the broadcaster's
+// own tick thread (not the shared @Scheduled one) and shared by every
+// subscriber. Each session buffers at most one
+// frame per poll: if a frame is still unsent when the next one is due, it is
+// replaced by a snapshot, so a slow client skips states without missing any.
+//
+// Skipping states does not help a client that stops reading altogether: its
+// send blocks a sender thread. Sessions are wrapped in a
+// ConcurrentWebSocketSessionDecorator with a send-time and buffer limit, and
+// the container's own blocking-send timeout is set to the same limit, so a
+// stalled send fails after polls.ws.send-time-limit-ms and the session is
+// closed. Until then the tick queues nothing more for it.
+@Component
+public class PollUpdateBroadcaster extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(PollUpdateBroadcaster.class);
+
+    private static final int MAX_QUEUED_ERRORS = 16;
+
+    // Tomcat reads it from the session's user properties on every send
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final VoteTallyEngine tallyEngine;
+    private final PollRepository pollRepository;
+    private final JsonMapper jsonMapper;
+
+    private final int maxSubscriptions;
+    private final int sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Client>> groups = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // Counts last broadcast per poll; touched only by the tick thread
+    private final Map<Long, Map<Long, Long>> lastSent = new HashMap<>();
+
+    private final ExecutorService sender;
+    private final ScheduledExecutorService ticker;
+
+    public PollUpdateBroadcaster(VoteTallyEngine tallyEngine,
+            PollRepository pollRepository,
+            JsonMapper jsonMapper,
+            MeterRegistry meterRegistry,
+            @Value("${polls.ws.max-subscriptions-per-session:100}") int maxSubscriptions,
+            @Value("${polls.ws.sender-threads:8}") int senderThreads,
+            @Value("${polls.ws.interval-ms:250}") long intervalMs,
+            @Value("${polls.ws.send-time-limit-ms:5000}") int sendTimeLimitMs,
+            @Value("${polls.ws.send-buffer-size-limit:524288}") int sendBufferSizeLimit) {
+        this.tallyEngine = tallyEngine;
+        this.pollRepository = pollRepository;
+        this.jsonMapper = jsonMapper;
+        this.maxSubscriptions = maxSubscriptions;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "poll-ws-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "poll-ws-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A task that throws is never run again, so nothing may escape
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                log.error("WebSocket tick failed", e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("polls.ws.sessions", clients, Map::size).register(meterRegistry);
+        Gauge.builder("polls.ws.polls", groups, Map::size).register(meterRegistry);
+    }
+
+    // ================= SESSION =================
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        clients.put(session.getId(), new Client(session));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Client client = clients.remove(session.getId());
+        if (client != null) {
+            client.subscriptions.forEach(pollId -> leave(pollId, client));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Client client = clients.get(session.getId());
+        if (client == null) {
+            return;
+        }
+
+        JsonNode request;
+        try {
+            request = jsonMapper.readTree(message.getPayload());
+        } catch (RuntimeException e) {
+            client.error(null, "Malformed message");
+            return;
+        }
+
+        String action = request.path("action").asString("");
+        List<Long> pollIds = new ArrayList<>();
+        request.path("pollIds").forEach(id -> pollIds.add(id.asLong()));
+
+        switch (action) {
+            case "subscribe" -> pollIds.forEach(pollId -> subscribe(client, pollId));
+            case "unsubscribe" -> pollIds.forEach(pollId -> {
+                if (client.subscriptions.remove(pollId)) {
+                    leave(pollId, client);
+                }
+            });
+            default -> client.error(null, "Unknown action: " + action);
+        }
+    }
+
+    private void subscribe(Client client, Long pollId) {
+        if (client.subscriptions.contains(pollId)) {
+            return;
+        }
+        if (client.subscriptions.size() >= maxSubscriptions) {
+            client.error(pollId, "Subscription limit reached");
+            return;
+        }
+        if (!pollRepository.existsById(pollId)) {
+            client.error(pollId, "Poll not found with id " + pollId);
+            return;
+        }
+
+        // The snapshot is sent by the next tick, keeping every frame for a
+        // poll ordered on one thread
+        client.subscriptions.add(pollId);
+        client.needsSnapshot.add(pollId);
+        groups.computeIfAbsent(pollId, id -> ConcurrentHashMap.newKeySet()).add(client);
+        dirty.add(pollId);
+    }
+
+    private void leave(Long pollId, Client client) {
+        client.pending.remove(pollId);
+        client.needsSnapshot.remove(pollId);
+        groups.computeIfPresent(pollId, (id, group) -> {
+            group.remove(client);
+            return group.isEmpty() ? null : group;
+        });
+    }
+
+    // ================= EVENTS =================
+
+    @TransactionalEventListener
+    public void onVote(VoteEvent event) {
+        if (groups.containsKey(event.getPollId())) {
+            dirty.add(event.getPollId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPollChange(PollEvent event) {
+        if (event.getType() != PollEvent.Type.DELETED) {
+            return;
+        }
+        Set<Client> group = groups.remove(event.getPollId());
+        if (group != null) {
+            group.forEach(client -> {
+                client.subscriptions.remove(event.getPollId());
+                client.error(event.getPollId(), "Poll deleted");
+            });
+        }
+    }
+
+    // ================= PUSH =================
+
+    void tick() {
+        lastSent.keySet().retainAll(groups.keySet());
+
+        List<Long> pollIds = new ArrayList<>(dirty);
+        dirty.removeAll(pollIds);
+
+        for (Long pollId : pollIds) {
+            Set<Client> group = groups.get(pollId);
+            if (group == null || group.isEmpty()) {
+                continue;
+            }
+
+            PollTally tally = tallyEngine.get(pollId);
+            Map<Long, Long> counts = tally.snapshot();
+            Map<Long, Long> previous = lastSent.getOrDefault(pollId, Collections.emptyMap());
+
+            Map<Long, Long> changed = new LinkedHashMap<>();
+            counts.forEach((optionId, count) -> {
+                if (!count.equals(previous.get(optionId))) {
+                    changed.put(optionId, count);
+                }
+            });
+            lastSent.put(pollId, counts);
+
+            Frames frames = new Frames(pollId, tally.total(), counts, changed);
+            for (Client client : group) {
+                client.offer(pollId, frames);
+            }
+        }
+    }
+
+    // Serialized lazily, once per tick: most ticks need only one of the two
+    private final class Frames {
+
+        private final Long pollId;
+        private final long total;
+        private final Map<Long, Long> counts;
+        private final Map<Long, Long> changed;
+
+        private TextMessage snapshot;
+        private TextMessage delta;
+
+        private Frames(Long pollId, long total, Map<Long, Long> counts, Map<Long, Long> changed) {
+            this.pollId = pollId;
+            this.total = total;
+            this.counts = counts;
+            this.changed = changed;
+        }
+
+        boolean hasChanges() {
+            return !changed.isEmpty();
+        }
+
+        TextMessage snapshot() {
+            if (snapshot == null) {
+                snapshot = frame("snapshot", pollId, total, counts);
+            }
+            return snapshot;
+        }
+
+        TextMessage delta() {
+            if (delta == null) {
+                delta = frame("delta", pollId, total, changed);
+            }
+            return delta;
+        }
+    }
+
+    private TextMessage frame(String type, Long pollId, long total, Map<Long, Long> counts) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("type", type);
+        body.put("pollId", pollId);
+        body.put("total", total);
+        body.put("counts", counts);
+        return new TextMessage(jsonMapper.writeValueAsString(body));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    // ================= CLIENT =================
+
+    private final class Client {
+
+        private final ConcurrentWebSocketSessionDecorator session;
+
+        private final Set<Long> subscriptions = ConcurrentHashMap.newKeySet();
+        private final Set<Long> needsSnapshot = ConcurrentHashMap.newKeySet();
+
+        // At most one unsent frame per subscribed poll
+        private final Map<Long, TextMessage> pending = new ConcurrentHashMap<>();
+        private final Queue<TextMessage> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Client(WebSocketSession session) {
+            if (session instanceof NativeWebSocketSession nativeSession) {
+                jakarta.websocket.Session container = nativeSession.getNativeSession(jakarta.websocket.Session.class);
+                if (container != null) {
+                    container.getUserProperties().put(BLOCKING_SEND_TIMEOUT, (long) sendTimeLimitMs);
+                }
+            }
+            this.session = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, sendBufferSizeLimit);
+        }
+
+        // Its send is failing and will close the session
+        private boolean stalled() {
+            return session.getTimeSinceSendStarted() > sendTimeLimitMs;
+        }
+
+        // Called from the tick thread only
+        void offer(Long pollId, Frames frames) {
+            if (stalled()) {
+                return;
+            }
+            if (needsSnapshot.remove(pollId) || pending.containsKey(pollId)) {
+                pending.put(pollId, frames.snapshot());
+            } else if (frames.hasChanges()) {
+                pending.put(pollId, frames.delta());
+            } else {
+                return;
+            }
+            schedule();
+        }
+
+        void error(Long pollId, String message) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("type", "error");
+            body.put("pollId", pollId);
+            body.put("message", message);
+            if (errors.size() < MAX_QUEUED_ERRORS) {
+                errors.add(new TextMessage(jsonMapper.writeValueAsString(body)));
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    TextMessage error;
+                    while ((error = errors.poll()) != null) {
+                        session.sendMessage(error);
+                    }
+
+                    Iterator<Long> keys = pending.keySet().iterator();
+                    while (keys.hasNext()) {
+                        TextMessage frame = pending.remove(keys.next());
+                        if (frame != null) {
+                            session.sendMessage(frame);
+                        }
+                    }
+                } catch (IOException | IllegalStateException | SessionLimitExceededException e) {
+                    log.debug("Dropping WebSocket session {}: {}", session.getId(), e.getMessage());
+                    pending.clear();
+                    errors.clear();
+                    draining.set(false);
+                    closeQuietly();
+                    return;
+                }
+                draining.set(false);
+            } while (hasWork() && draining.compareAndSet(false, true));
+        }
+
+        private boolean hasWork() {
+            return !pending.isEmpty() || !errors.isEmpty();
+        }
+
+        private void closeQuietly() {
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                // already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.polls.pojos.tally;
+
+// Open-addressing set of primitive longs (linear probing, load factor 0.5).
+// About 16 bytes per element instead of ~50 for a HashSet<Long>.
+// Not thread-safe; PollVoters guards it.
+class LongHashSet {
+
+    // Ids come from identity columns and are never 0, so 0 marks a free slot
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int size;
+
+    LongHashSet(int expected) {
+        int capacity = 16;
+        while (capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        table = new long[capacity];
+    }
+
+    boolean contains(long value) {
+        int mask = table.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == value) {
+                return true;
+            }
+            if (slot == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    boolean add(long value) {
+        if ((size + 1) * 2 > table.length) {
+            resize(table.length << 1);
+        }
+        int mask = table.length - 1;
+        for (int i = index(value, mask); ; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == value) {
+                return false;
+            }
+            if (slot == EMPTY) {
+                table[i] = value;
+                size++;
+                return true;
+            }
+        }
+    }
+
+    boolean remove(long value) {
+        int mask = table.length - 1;
+        int i = index(value, mask);
+        while (table[i] != value) {
+            if (table[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = EMPTY;
+        size--;
+
+        // Shift later entries of the probe chain back so lookups don't stop early
+        for (int j = (i + 1) & mask; table[j] != EMPTY; j = (j + 1) & mask) {
+            long moved = table[j];
+            int home = index(moved, mask);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                table[i] = moved;
+                table[j] = EMPTY;
+                i = j;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        long[] values = new long[size];
+        int n = 0;
+        for (long slot : table) {
+            if (slot != EMPTY) {
+                values[n++] = slot;
+            }
+        }
+        return values;
+    }
+
+    private void resize(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        size = 0;
+        for (long slot : old) {
+            if (slot != EMPTY) {
+                add(slot);
+            }
+        }
+    }
+
+    // Home slot of a value; package-private so tests can build collisions
+    static int index(long value, int mask) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
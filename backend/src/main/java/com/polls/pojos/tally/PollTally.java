@@ -0,0 +1,52 @@
+package com.polls.pojos.tally;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live vote counts for one poll.
+// LongAdder stripes the counter across cells so concurrent voters on the same
+// option don't fight over a single CAS.
+public class PollTally {
+
+    private final ConcurrentHashMap<Long, LongAdder> options = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+
+    PollTally(Map<Long, Long> seed) {
+        seed.forEach((optionId, votes) -> {
+            counter(optionId).add(votes);
+            total.add(votes);
+        });
+    }
+
+    public long count(Long optionId) {
+        LongAdder adder = options.get(optionId);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    public Map<Long, Long> snapshot() {
+        Map<Long, Long> counts = new HashMap<>();
+        options.forEach((optionId, adder) -> counts.put(optionId, adder.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    void increment(Long optionId) {
+        counter(optionId).increment();
+        total.increment();
+    }
+
+    void decrement(Long optionId) {
+        counter(optionId).decrement();
+        total.decrement();
+    }
+
+    private LongAdder counter(Long optionId) {
+        return options.computeIfAbsent(optionId, id -> new LongAdder());
+    }
+}
@@ -0,0 +1,50 @@
+package com.polls.pojos.tally;
+
+import java.util.List;
+
+// The set of users who voted on one poll
+public class PollVoters {
+
+    private final LongHashSet users;
+    private volatile long lastAccess = System.nanoTime();
+
+    PollVoters(List<Long> userIds) {
+        users = new LongHashSet(userIds.size());
+        userIds.forEach(users::add);
+    }
+
+    PollVoters(long[] userIds) {
+        users = new LongHashSet(userIds.length);
+        for (long userId : userIds) {
+            users.add(userId);
+        }
+    }
+
+    public synchronized boolean contains(Long userId) {
+        return users.contains(userId);
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    synchronized long[] toArray() {
+        return users.toArray();
+    }
+
+    synchronized void add(Long userId) {
+        users.add(userId);
+    }
+
+    synchronized void remove(Long userId) {
+        users.remove(userId);
+    }
+
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+}
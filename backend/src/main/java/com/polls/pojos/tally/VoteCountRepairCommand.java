@@ -0,0 +1,59 @@
+package com.polls.pojos.tally;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.polls.pojos.repository.PollOptionRepository;
+import com.polls.pojos.repository.PollRepository;
+
+// One-shot backfill/repair of the denormalized vote_count columns:
+//
+//   java -jar app.jar --repair-vote-counts
+//
+// Recounts every poll and option from the votes table, fixes the rows that
+// differ and exits. Run it with voting paused; a vote committed while the
+// recount is running can be overwritten.
+@Component
+public class VoteCountRepairCommand implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteCountRepairCommand.class);
+
+    private static final String OPTION = "repair-vote-counts";
+
+    private final PollRepository pollRepository;
+    private final PollOptionRepository pollOptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext context;
+
+    public VoteCountRepairCommand(PollRepository pollRepository,
+            PollOptionRepository pollOptionRepository,
+            PlatformTransactionManager transactionManager,
+            ConfigurableApplicationContext context) {
+        this.pollRepository = pollRepository;
+        this.pollOptionRepository = pollOptionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int options = pollOptionRepository.repairVoteCounts();
+            int polls = pollRepository.repairVoteCounts();
+            log.info("Repaired vote_count on {} options and {} polls", options, polls);
+        });
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,120 @@
+package com.polls.pojos.tally;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.polls.pojos.datasource.ReadWriteRoutingDataSource;
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.repository.PollOptionRepository;
+import com.polls.pojos.repository.projection.OptionVoteCount;
+
+// In-memory vote counts per poll.
+// A poll is seeded from the poll_options.vote_count columns (or, once it is
+// archived, from poll_results_summary) the first time it is read and is then
+// kept current from committed VoteEvents.
+@Component
+public class VoteTallyEngine {
+
+    private final ConcurrentHashMap<Long, PollTally> tallies = new ConcurrentHashMap<>();
+
+    private final PollOptionRepository pollOptionRepository;
+
+    public VoteTallyEngine(PollOptionRepository pollOptionRepository) {
+        this.pollOptionRepository = pollOptionRepository;
+    }
+
+    // Concurrent readers of a cold poll wait for a single seed query
+    public PollTally get(Long pollId) {
+        return tallies.computeIfAbsent(pollId, this::seed);
+    }
+
+    PollTally peek(Long pollId) {
+        return tallies.get(pollId);
+    }
+
+    public Set<Long> cachedPollIds() {
+        return Set.copyOf(tallies.keySet());
+    }
+
+    public void evict(Long pollId) {
+        tallies.remove(pollId);
+    }
+
+    // Null when the poll is not cached
+    public Map<Long, Long> cachedCounts(Long pollId) {
+        PollTally tally = tallies.get(pollId);
+        return tally == null ? null : tally.snapshot();
+    }
+
+    // Counts recovered at startup (VoteJournal, TallySnapshotLoader); a tally
+    // already seeded from the database is kept
+    public void restore(Long pollId, Map<Long, Long> counts) {
+        tallies.putIfAbsent(pollId, new PollTally(counts));
+    }
+
+    // Drops the entry only if it is still the instance the caller compared,
+    // so a fresh seed that raced with the caller survives
+    boolean evict(Long pollId, PollTally expected) {
+        return tallies.remove(pollId, expected);
+    }
+
+    // Always from the primary: a replica behind by a few votes would seed a
+    // tally that no later event corrects
+    public Map<Long, Map<Long, Long>> loadCounts(Collection<Long> pollIds) {
+        List<OptionVoteCount> rows = ReadWriteRoutingDataSource.onPrimary(
+                () -> pollOptionRepository.findVoteCounts(pollIds));
+
+        Map<Long, Map<Long, Long>> counts = new HashMap<>();
+        for (OptionVoteCount row : rows) {
+            counts.computeIfAbsent(row.getPollId(), id -> new HashMap<>())
+                    .put(row.getOptionId(), row.getVotes());
+        }
+        return counts;
+    }
+
+    private PollTally seed(Long pollId) {
+        return new PollTally(loadCounts(List.of(pollId)).getOrDefault(pollId, Map.of()));
+    }
+
+    // ================= VOTE EVENTS =================
+
+    // computeIfPresent takes the same bin lock as a seed in progress, so an
+    // event that commits while the poll is being seeded is applied after it.
+    // Polls that are not cached are skipped: they will be seeded from the
+    // columns, which already include the vote.
+    // First of all after-commit listeners: PollCacheInvalidator bumps the
+    // version next, and results loaded under the new version must see this.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onVote(VoteEvent event) {
+        tallies.computeIfPresent(event.getPollId(), (pollId, tally) -> {
+            if (event.getType() == VoteEvent.Type.CAST) {
+                tally.increment(event.getOptionId());
+            } else {
+                tally.decrement(event.getOptionId());
+            }
+            return tally;
+        });
+    }
+
+    // ================= POLL EVENTS =================
+
+    // An archived poll is reseeded from its summary; a deleted one is gone
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void onPollChange(PollEvent event) {
+        if (event.getType() == PollEvent.Type.ARCHIVED || event.getType() == PollEvent.Type.DELETED) {
+            tallies.remove(event.getPollId());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.polls.pojos.tally;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Compares cached tallies against the vote_count columns and drops any that
+// drifted (a vote committed between a seed query and its event, an event lost
+// to a restart). Dropped polls are re-seeded on their next read.
+// The columns themselves are checked against votes by VoteCountRepairCommand.
+@Component
+public class VoteTallyReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteTallyReconciler.class);
+
+    private final VoteTallyEngine engine;
+    private final int batchSize;
+
+    public VoteTallyReconciler(VoteTallyEngine engine,
+            @Value("${polls.tally.reconcile-batch-size:500}") int batchSize) {
+        this.engine = engine;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${polls.tally.reconcile-interval-ms:300000}",
+            initialDelayString = "${polls.tally.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        List<Long> pollIds = new ArrayList<>(engine.cachedPollIds());
+
+        for (int from = 0; from < pollIds.size(); from += batchSize) {
+            List<Long> batch = pollIds.subList(from, Math.min(from + batchSize, pollIds.size()));
+            Map<Long, Map<Long, Long>> actual = engine.loadCounts(batch);
+
+            for (Long pollId : batch) {
+                Map<Long, Long> expected = actual.getOrDefault(pollId, Map.of());
+                PollTally tally = engine.peek(pollId);
+
+                if (tally != null && !matches(tally, expected) && engine.evict(pollId, tally)) {
+                    log.warn("Vote tally for poll {} drifted (cached {}, table {}), re-seeding",
+                            pollId, tally.snapshot(), expected);
+                }
+            }
+        }
+    }
+
+    private boolean matches(PollTally tally, Map<Long, Long> expected) {
+        long expectedTotal = 0;
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            if (tally.count(entry.getKey()) != entry.getValue()) {
+                return false;
+            }
+            expectedTotal += entry.getValue();
+        }
+        return tally.total() == expectedTotal;
+    }
+}
@@ -0,0 +1,107 @@
+package com.polls.pojos.tally;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.polls.pojos.datasource.ReadWriteRoutingDataSource;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.repository.VoteRepository;
+
+// Answers "has this user voted on this poll?" from memory.
+// Each poll's voter set is loaded from votes on first use and then follows
+// committed VoteEvents. The unique constraint on votes stays authoritative;
+// this only lets obvious duplicates be turned away before they reach the
+// connection pool.
+@Component
+public class VoterRegistry {
+
+    private final ConcurrentHashMap<Long, PollVoters> polls = new ConcurrentHashMap<>();
+
+    private final VoteRepository voteRepository;
+    private final long maxEntries;
+
+    public VoterRegistry(VoteRepository voteRepository,
+            @Value("${polls.voters.max-entries:5000000}") long maxEntries) {
+        this.voteRepository = voteRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean hasVoted(Long pollId, Long userId) {
+        PollVoters voters = polls.computeIfAbsent(pollId,
+                id -> new PollVoters(ReadWriteRoutingDataSource.onPrimary(() -> voteRepository.findVoterIds(id))));
+        voters.touch();
+        return voters.contains(userId);
+    }
+
+    public void evict(Long pollId) {
+        polls.remove(pollId);
+    }
+
+    // Null when the poll's voters are not loaded; does not count as a use
+    public long[] cachedVoterIds(Long pollId) {
+        PollVoters voters = polls.get(pollId);
+        return voters == null ? null : voters.toArray();
+    }
+
+    // Voters recovered at startup (VoteJournal, TallySnapshotLoader); a set
+    // already loaded from the database is kept
+    public void restore(Long pollId, long[] userIds) {
+        polls.putIfAbsent(pollId, new PollVoters(userIds));
+    }
+
+    // ================= VOTE EVENTS =================
+
+    // Waits for an in-flight load of the same poll (see VoteTallyEngine.onVote)
+    @TransactionalEventListener
+    public void onVote(VoteEvent event) {
+        polls.computeIfPresent(event.getPollId(), (pollId, voters) -> {
+            if (event.getType() == VoteEvent.Type.CAST) {
+                voters.add(event.getUserId());
+            } else {
+                voters.remove(event.getUserId());
+            }
+            return voters;
+        });
+    }
+
+    // ================= EVICTION =================
+
+    // Keeps the total number of cached voters under polls.voters.max-entries
+    // by dropping the least recently used polls first
+    @Scheduled(fixedDelayString = "${polls.voters.eviction-interval-ms:30000}")
+    public void evictColdPolls() {
+        // Access times and sizes are read once: requests keep touching the
+        // polls, and a sort whose keys change under it can throw
+        Candidate[] candidates = polls.entrySet().stream()
+                .map(entry -> new Candidate(entry.getKey(), entry.getValue(),
+                        entry.getValue().lastAccess(), entry.getValue().size()))
+                .toArray(Candidate[]::new);
+
+        long total = 0;
+        for (Candidate candidate : candidates) {
+            total += candidate.size();
+        }
+        if (total <= maxEntries) {
+            return;
+        }
+
+        Arrays.sort(candidates, Comparator.comparingLong(Candidate::lastAccess));
+        for (Candidate candidate : candidates) {
+            if (total <= maxEntries) {
+                break;
+            }
+            if (polls.remove(candidate.pollId(), candidate.voters())) {
+                total -= candidate.size();
+            }
+        }
+    }
+
+    private record Candidate(Long pollId, PollVoters voters, long lastAccess, int size) {
+    }
+}
@@ -0,0 +1,48 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Databases
+-- that already have these tables are baselined at version 1 and skip this.
+
+CREATE TABLE users (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    varchar(255) NOT NULL,
+    email       varchar(255) NOT NULL,
+    password    varchar(255) NOT NULL,
+    role        varchar(255) NOT NULL,
+    created_at  timestamp(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE polls (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    question    varchar(500) NOT NULL,
+    expiry_time timestamp(6),
+    closed      boolean NOT NULL,
+    created_at  timestamp(6) NOT NULL,
+    vote_count  bigint DEFAULT 0 NOT NULL,
+    created_by  bigint NOT NULL,
+    CONSTRAINT fk_polls_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+);
+
+CREATE TABLE poll_options (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    option_text varchar(255) NOT NULL,
+    vote_count  bigint DEFAULT 0 NOT NULL,
+    poll_id     bigint NOT NULL,
+    CONSTRAINT fk_poll_options_poll FOREIGN KEY (poll_id) REFERENCES polls (id)
+);
+
+CREATE TABLE votes (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    voted_at    timestamp(6),
+    poll_id     bigint NOT NULL,
+    option_id   bigint NOT NULL,
+    user_id     bigint NOT NULL,
+    -- one user can vote once per poll; also the ON CONFLICT target of insertVote
+    CONSTRAINT uk_votes_poll_user UNIQUE (poll_id, user_id),
+    CONSTRAINT fk_votes_poll FOREIGN KEY (poll_id) REFERENCES polls (id),
+    CONSTRAINT fk_votes_option FOREIGN KEY (option_id) REFERENCES poll_options (id),
+    CONSTRAINT fk_votes_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_votes_user_poll ON votes (user_id, poll_id);
+CREATE INDEX idx_polls_closed_expiry ON polls (closed, expiry_time);
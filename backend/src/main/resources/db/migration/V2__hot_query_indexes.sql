@@ -0,0 +1,21 @@
+-- One index per hot query. IF NOT EXISTS because baselined databases may
+-- already have the ones Hibernate created from the entity annotations.
+
+-- Per-option tallies of a poll (tally rebuilds, count repair): index-only scan
+CREATE INDEX IF NOT EXISTS idx_votes_poll_option ON votes (poll_id, option_id);
+
+-- "Voted polls" dashboard, walked backwards from the keyset cursor
+CREATE INDEX IF NOT EXISTS idx_votes_user_poll ON votes (user_id, poll_id);
+
+-- "My polls" dashboard and the feed's createdBy filter; both page by id,
+-- which follows creation order
+CREATE INDEX IF NOT EXISTS idx_polls_created_by_id ON polls (created_by, id);
+
+-- Expiry sweeper and its queue refill only ever look at open polls
+CREATE INDEX IF NOT EXISTS idx_polls_open_expiry ON polls (expiry_time) WHERE NOT closed;
+DROP INDEX IF EXISTS idx_polls_closed_expiry;
+
+-- Options of a page of polls; foreign keys are not indexed by PostgreSQL
+CREATE INDEX IF NOT EXISTS idx_poll_options_poll ON poll_options (poll_id, id);
+
+-- users(email) is already served by the unique constraint's index
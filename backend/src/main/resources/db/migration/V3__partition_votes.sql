@@ -0,0 +1,54 @@
+-- votes becomes hash-partitioned on poll_id. Every per-poll query (tallies,
+-- voter sets, duplicate checks, vote deletes) filters on poll_id and is
+-- pruned to a single partition. Both keys that PostgreSQL enforces must
+-- contain the partition column: the primary key is (poll_id, id) and the
+-- one-vote-per-user constraint is already (poll_id, user_id). The
+-- partition count is fixed here; changing it means another migration of
+-- this shape.
+
+ALTER TABLE votes RENAME TO votes_unpartitioned;
+ALTER TABLE votes_unpartitioned RENAME CONSTRAINT votes_pkey TO votes_unpartitioned_pkey;
+ALTER TABLE votes_unpartitioned DROP CONSTRAINT IF EXISTS uk_votes_poll_user;
+DROP INDEX IF EXISTS idx_votes_poll_option;
+DROP INDEX IF EXISTS idx_votes_user_poll;
+
+CREATE TABLE votes (
+    id          bigint NOT NULL,
+    voted_at    timestamp(6),
+    poll_id     bigint NOT NULL,
+    option_id   bigint NOT NULL,
+    user_id     bigint NOT NULL,
+    CONSTRAINT votes_pkey PRIMARY KEY (poll_id, id),
+    CONSTRAINT uk_votes_poll_user UNIQUE (poll_id, user_id),
+    CONSTRAINT fk_votes_poll FOREIGN KEY (poll_id) REFERENCES polls (id),
+    CONSTRAINT fk_votes_option FOREIGN KEY (option_id) REFERENCES poll_options (id),
+    CONSTRAINT fk_votes_user FOREIGN KEY (user_id) REFERENCES users (id)
+) PARTITION BY HASH (poll_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format(
+            'CREATE TABLE votes_p%s PARTITION OF votes FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+            lpad(i::text, 2, '0'), i);
+    END LOOP;
+END
+$$;
+
+-- Created on the parent, so every partition gets its own copy
+CREATE INDEX idx_votes_poll_option ON votes (poll_id, option_id);
+-- Not prunable (no poll_id equality); the planner merges the per-partition scans
+CREATE INDEX idx_votes_user_poll ON votes (user_id, poll_id);
+
+INSERT INTO votes (id, voted_at, poll_id, option_id, user_id)
+SELECT id, voted_at, poll_id, option_id, user_id FROM votes_unpartitioned;
+
+DROP TABLE votes_unpartitioned;
+
+-- A plain sequence instead of an identity column, which partitioned tables
+-- do not support on the PostgreSQL versions we run
+CREATE SEQUENCE votes_id_seq OWNED BY votes.id;
+SELECT setval('votes_id_seq', COALESCE((SELECT MAX(id) FROM votes), 0) + 1, false);
+ALTER TABLE votes ALTER COLUMN id SET DEFAULT nextval('votes_id_seq');
+
+ANALYZE votes;
@@ -0,0 +1,33 @@
+-- Final results of closed polls, written once by PollResultsArchiver. One
+-- row per option; total_votes and closed_at repeat on every row of a poll.
+CREATE TABLE poll_results_summary (
+    poll_id     bigint NOT NULL,
+    option_id   bigint NOT NULL,
+    vote_count  bigint NOT NULL,
+    total_votes bigint NOT NULL,
+    closed_at   timestamp(6) NOT NULL,
+    CONSTRAINT poll_results_summary_pkey PRIMARY KEY (poll_id, option_id),
+    CONSTRAINT fk_poll_results_summary_poll FOREIGN KEY (poll_id)
+        REFERENCES polls (id) ON DELETE CASCADE,
+    CONSTRAINT fk_poll_results_summary_option FOREIGN KEY (option_id)
+        REFERENCES poll_options (id) ON DELETE CASCADE
+);
+
+-- Raw votes of archived polls when polls.archive.move-votes is on: one row
+-- per poll with parallel arrays, ordered by vote id. Large arrays are
+-- compressed out of line by TOAST. No foreign keys: rows are only ever
+-- inserted, and a poll with archived votes cannot be deleted.
+CREATE TABLE votes_archive (
+    poll_id     bigint PRIMARY KEY,
+    archived_at timestamp(6) NOT NULL,
+    vote_ids    bigint[] NOT NULL,
+    option_ids  bigint[] NOT NULL,
+    user_ids    bigint[] NOT NULL,
+    voted_at    timestamp(6)[] NOT NULL
+);
+
+-- Set in the archiving transaction; not mapped on the entity
+ALTER TABLE polls ADD COLUMN archived_at timestamp(6);
+
+-- The archiver's work list stays as small as the backlog of closed polls
+CREATE INDEX idx_polls_unarchived ON polls (id) WHERE closed AND archived_at IS NULL;
@@ -0,0 +1,29 @@
+-- Vote and poll lifecycle events, written by OutboxWriter in the same
+-- transaction as the change. xact_id is the writing transaction: rows are
+-- read in (xact_id, id) order and only once every transaction up to
+-- xact_id has finished, so a slow commit can never land behind an offset
+-- that has already moved past it (ids alone are handed out before commit).
+CREATE TABLE event_outbox (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    xact_id     xid8 NOT NULL DEFAULT pg_current_xact_id(),
+    event_type  varchar(32) NOT NULL,
+    poll_id     bigint NOT NULL,
+    option_id   bigint,
+    user_id     bigint,
+    expiry_time timestamp(6),
+    origin      varchar(32) NOT NULL,
+    created_at  timestamp(6) NOT NULL DEFAULT localtimestamp
+);
+
+CREATE INDEX idx_event_outbox_position ON event_outbox (xact_id, id);
+
+-- Position of each OutboxConsumer: the last event it has handled. The relay
+-- locks a consumer's row for the whole batch, so a consumer runs on one
+-- node at a time; updated_at is touched on every pass and tells live
+-- consumers from ones left behind by stopped nodes.
+CREATE TABLE outbox_offsets (
+    consumer    varchar(64) PRIMARY KEY,
+    last_xact   xid8 NOT NULL,
+    last_id     bigint NOT NULL,
+    updated_at  timestamp(6) NOT NULL
+);
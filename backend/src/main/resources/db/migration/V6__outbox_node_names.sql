@@ -0,0 +1,6 @@
+-- Outbox origins and consumer names now carry the node name
+-- (polls.node.name, the host name by default) instead of a random tag, so
+-- they need room for a full host name. Widening a varchar does not rewrite
+-- the table.
+ALTER TABLE event_outbox ALTER COLUMN origin TYPE varchar(64);
+ALTER TABLE outbox_offsets ALTER COLUMN consumer TYPE varchar(128);
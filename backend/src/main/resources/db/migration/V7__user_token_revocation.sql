@@ -0,0 +1,8 @@
+-- When a user's issued tokens stopped being trusted (email changed). Every
+-- node reloads the recent ones (see TokenRevocations), so a revocation holds
+-- across nodes and restarts. Almost every row is NULL; the partial index
+-- keeps the reload to the few that are not.
+ALTER TABLE users ADD COLUMN tokens_revoked_at timestamp(6);
+
+CREATE INDEX idx_users_tokens_revoked_at ON users (tokens_revoked_at)
+    WHERE tokens_revoked_at IS NOT NULL;
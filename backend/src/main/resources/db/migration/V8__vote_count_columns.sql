@@ -0,0 +1,32 @@
+-- V1 creates the vote_count columns, but a database that predates them was
+-- baselined at version 1 and never ran it. Add them where missing and count
+-- the existing votes; databases that already maintain them are left as they
+-- are, so a running node's counter updates are never overwritten.
+DO $$
+DECLARE
+    poll_counts_missing   boolean;
+    option_counts_missing boolean;
+BEGIN
+    SELECT NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema()
+                         AND table_name = 'polls' AND column_name = 'vote_count')
+      INTO poll_counts_missing;
+    SELECT NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema()
+                         AND table_name = 'poll_options' AND column_name = 'vote_count')
+      INTO option_counts_missing;
+
+    ALTER TABLE polls ADD COLUMN IF NOT EXISTS vote_count bigint NOT NULL DEFAULT 0;
+    ALTER TABLE poll_options ADD COLUMN IF NOT EXISTS vote_count bigint NOT NULL DEFAULT 0;
+
+    IF poll_counts_missing THEN
+        UPDATE polls p SET vote_count = c.votes
+        FROM (SELECT poll_id, COUNT(*) AS votes FROM votes GROUP BY poll_id) c
+        WHERE c.poll_id = p.id;
+    END IF;
+    IF option_counts_missing THEN
+        UPDATE poll_options o SET vote_count = c.votes
+        FROM (SELECT option_id, COUNT(*) AS votes FROM votes GROUP BY option_id) c
+        WHERE c.option_id = o.id;
+    END IF;
+END $$;
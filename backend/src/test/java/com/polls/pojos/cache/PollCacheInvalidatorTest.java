@@ -0,0 +1,146 @@
+package com.polls.pojos.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.polls.pojos.dto.PollResponseDTO;
+import com.polls.pojos.dto.PollResultResponseDTO;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.repository.PollOptionRepository;
+import com.polls.pojos.tally.VoteTallyEngine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Runs the real after-commit listeners in the order Spring gives them
+class PollCacheInvalidatorTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(TestConfig.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void resultsLoadedRightAfterTheInvalidationSeeTheVote() {
+        VoteTallyEngine tallies = context.getBean(VoteTallyEngine.class);
+        ReloadingResultsCache results = context.getBean(ReloadingResultsCache.class);
+        tallies.get(1L);
+        assertThat(results.get(1L, results::load).getTotalVotes()).isZero();
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(
+                status -> context.publishEvent(VoteEvent.cast(1L, 10L, 5L)));
+
+        // Served from the entry reloaded under the new version
+        assertThat(results.get(1L, () -> {
+            throw new AssertionError("expected a cache hit");
+        }).getTotalVotes()).isEqualTo(1L);
+    }
+
+    // A reader that loads the results as soon as the entry is evicted, before
+    // any later after-commit listener has run
+    static class ReloadingResultsCache extends VersionedPollCache<PollResultResponseDTO> {
+
+        private final VoteTallyEngine tallies;
+
+        ReloadingResultsCache(PollVersions versions, VoteTallyEngine tallies) {
+            super("results", true, 1_000, Duration.ofMinutes(1), dto -> 1, versions, new SimpleMeterRegistry());
+            this.tallies = tallies;
+        }
+
+        @Override
+        public void evict(Long pollId) {
+            super.evict(pollId);
+            get(pollId, this::load);
+        }
+
+        PollResultResponseDTO load() {
+            PollResultResponseDTO dto = new PollResultResponseDTO();
+            dto.setTotalVotes(tallies.get(1L).total());
+            return dto;
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TestConfig {
+
+        @Bean
+        PollVersions pollVersions() {
+            return new PollVersions();
+        }
+
+        @Bean
+        VoteTallyEngine voteTallyEngine() {
+            return new VoteTallyEngine(mock(PollOptionRepository.class));
+        }
+
+        @Bean
+        VersionedPollCache<PollResponseDTO> pollCache(PollVersions versions) {
+            return new VersionedPollCache<>("poll", true, 1_000, Duration.ofMinutes(1), dto -> 1,
+                    versions, new SimpleMeterRegistry());
+        }
+
+        @Bean
+        ReloadingResultsCache pollResultsCache(PollVersions versions, VoteTallyEngine tallies) {
+            return new ReloadingResultsCache(versions, tallies);
+        }
+
+        @Bean
+        PollCacheInvalidator pollCacheInvalidator(PollVersions versions,
+                VersionedPollCache<PollResponseDTO> pollCache,
+                VersionedPollCache<PollResultResponseDTO> pollResultsCache) {
+            return new PollCacheInvalidator(versions, pollCache, pollResultsCache,
+                    mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS));
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new NoResourceTransactionManager();
+        }
+    }
+
+    // Drives transaction synchronization (and so @TransactionalEventListener)
+    // without a database
+    static class NoResourceTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
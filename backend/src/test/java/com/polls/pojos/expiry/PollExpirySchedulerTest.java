@@ -0,0 +1,67 @@
+package com.polls.pojos.expiry;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.repository.PollRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PollExpirySchedulerTest {
+
+    private PollRepository pollRepository;
+    private PollExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        pollRepository = mock(PollRepository.class);
+        when(pollRepository.closeExpired(any(LocalDateTime.class), anyInt())).thenReturn(List.of());
+        scheduler = new PollExpiryScheduler(pollRepository, mock(ApplicationEventPublisher.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), 500, 10_000);
+    }
+
+    @Test
+    void expiryChangedWhileTheRefillQueryRunsIsNotLost() {
+        // Committed after the query took its snapshot, before the queue is swapped
+        when(pollRepository.findUpcomingExpiries(any(LocalDateTime.class), any(Limit.class))).thenAnswer(invocation -> {
+            scheduler.onPollChange(new PollEvent(PollEvent.Type.EXPIRY_UPDATED, 7L,
+                    LocalDateTime.now().minusSeconds(1)));
+            return List.of();
+        });
+
+        scheduler.refill();
+        scheduler.tick();
+
+        verify(pollRepository).closeExpired(any(LocalDateTime.class), anyInt());
+    }
+
+    @Test
+    void expiryBeyondTheRefilledHorizonWaitsForTheNextRefill() {
+        when(pollRepository.findUpcomingExpiries(any(LocalDateTime.class), any(Limit.class))).thenAnswer(invocation -> {
+            scheduler.onPollChange(new PollEvent(PollEvent.Type.EXPIRY_UPDATED, 7L,
+                    LocalDateTime.now().plusHours(1)));
+            return List.of();
+        });
+
+        scheduler.refill();
+        scheduler.tick();
+
+        verify(pollRepository, never()).closeExpired(any(LocalDateTime.class), anyInt());
+    }
+}
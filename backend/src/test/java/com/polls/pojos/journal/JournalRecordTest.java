@@ -0,0 +1,76 @@
+package com.polls.pojos.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+
+class JournalRecordTest {
+
+    private final byte[] scratch = new byte[JournalRecord.SIZE];
+
+    @Test
+    void writesFortyBytesInTheDocumentedLayout() {
+        ByteBuffer buffer = ByteBuffer.allocate(JournalRecord.SIZE * 2);
+        new JournalRecord(JournalRecord.DELETE, 7L, 8L, 9L, 1_700_000_000_000L).writeTo(buffer, scratch);
+
+        assertThat(buffer.position()).isEqualTo(40);
+        assertThat(buffer.getLong(0)).isEqualTo(7L);
+        assertThat(buffer.getLong(8)).isEqualTo(8L);
+        assertThat(buffer.getLong(16)).isEqualTo(9L);
+        assertThat(buffer.getLong(24)).isEqualTo(1_700_000_000_000L);
+        assertThat(buffer.get(32)).isEqualTo(JournalRecord.DELETE);
+        assertThat(buffer.get(33)).isZero();
+        assertThat(buffer.getShort(34)).isZero();
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, 36);
+        assertThat(buffer.getInt(36)).isEqualTo((int) crc.getValue());
+    }
+
+    @Test
+    void roundTripsRecordsBackToBack() {
+        ByteBuffer buffer = ByteBuffer.allocate(JournalRecord.SIZE * 3);
+        JournalRecord first = new JournalRecord(JournalRecord.CAST, 1L, 2L, 3L, 4L);
+        JournalRecord second = new JournalRecord(JournalRecord.DROP_POLL, Long.MAX_VALUE, 0L, 0L, 5L);
+        first.writeTo(buffer, scratch);
+        second.writeTo(buffer, scratch);
+        buffer.flip();
+
+        assertThat(JournalRecord.readFrom(buffer, scratch)).isEqualTo(first);
+        assertThat(JournalRecord.readFrom(buffer, scratch)).isEqualTo(second);
+        assertThat(JournalRecord.readFrom(buffer, scratch)).isNull();
+    }
+
+    @Test
+    void unwrittenSlotReadsAsEndOfData() {
+        ByteBuffer zeros = ByteBuffer.allocate(JournalRecord.SIZE * 2);
+
+        assertThat(JournalRecord.readFrom(zeros, scratch)).isNull();
+    }
+
+    @Test
+    void anyFlippedByteFailsTheChecksum() {
+        ByteBuffer buffer = ByteBuffer.allocate(JournalRecord.SIZE);
+        new JournalRecord(JournalRecord.CAST, 11L, 12L, 13L, 14L).writeTo(buffer, scratch);
+        byte[] written = buffer.array().clone();
+
+        for (int i = 0; i < JournalRecord.SIZE; i++) {
+            byte[] torn = written.clone();
+            torn[i] ^= 0x10;
+            assertThat(JournalRecord.readFrom(ByteBuffer.wrap(torn), scratch)).as("byte %d", i).isNull();
+        }
+    }
+
+    @Test
+    void partialTrailingRecordIsNotRead() {
+        ByteBuffer buffer = ByteBuffer.allocate(JournalRecord.SIZE);
+        new JournalRecord(JournalRecord.CAST, 1L, 2L, 3L, 4L).writeTo(buffer, scratch);
+        buffer.flip().limit(JournalRecord.SIZE - 1);
+
+        assertThat(JournalRecord.readFrom(buffer, scratch)).isNull();
+        assertThat(buffer.position()).isZero();
+    }
+}
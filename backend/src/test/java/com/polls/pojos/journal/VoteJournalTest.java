@@ -0,0 +1,249 @@
+package com.polls.pojos.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.tally.VoteTallyEngine;
+import com.polls.pojos.tally.VoterRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VoteJournalTest {
+
+    private static final int RECORDS_PER_SEGMENT = 4;
+
+    private int compactMinSegments = 2;
+
+    @TempDir
+    Path dir;
+
+    // What the vote_count columns say, per poll and option
+    private final Map<Long, Map<Long, Long>> columns = new HashMap<>();
+
+    // Voter sets and tallies installed by the last started journal
+    private Map<Long, Set<Long>> voterSets;
+    private Map<Long, Map<Long, Long>> tallies;
+
+    private DataSource dataSource;
+    private Statement statement;
+
+    @Test
+    void firstStartRebuildsFromTheVotesTable() throws SQLException {
+        columns.put(1L, Map.of(100L, 1L, 101L, 1L));
+
+        VoteJournal journal = start(new long[] {1, 100, 10}, new long[] {1, 101, 11});
+
+        verify(statement).executeQuery(anyString());
+        assertThat(voterSets).containsExactlyEntriesOf(Map.of(1L, Set.of(10L, 11L)));
+        assertThat(tallies).containsExactlyEntriesOf(Map.of(1L, Map.of(100L, 1L, 101L, 1L)));
+        journal.destroy();
+    }
+
+    @Test
+    void cleanShutdownIsReplayedWithoutTheVotesTable() {
+        VoteJournal journal = start();
+        journal.onVote(VoteEvent.cast(1L, 100L, 10L));
+        journal.onVote(VoteEvent.cast(1L, 100L, 11L));
+        journal.onVote(VoteEvent.deleted(1L, 100L, 10L));
+        journal.onVote(VoteEvent.cast(2L, 200L, 20L));
+        journal.onVote(VoteEvent.cast(3L, 300L, 30L));
+        journal.onPollChange(new PollEvent(PollEvent.Type.ARCHIVED, 3L));
+        journal.destroy();
+
+        columns.put(1L, Map.of(100L, 1L));
+        columns.put(2L, Map.of(200L, 1L));
+        journal = start();
+
+        verifyNoInteractions(dataSource);
+        assertThat(voterSets).containsOnly(Map.entry(1L, Set.of(11L)), Map.entry(2L, Set.of(20L)));
+        assertThat(tallies).containsOnlyKeys(1L, 2L);
+        journal.destroy();
+    }
+
+    @Test
+    void tallyComesFromTheColumnsAndDisagreeingVotersAreNotInstalled() {
+        VoteJournal journal = start();
+        journal.onVote(VoteEvent.cast(1L, 100L, 10L));
+        journal.onVote(VoteEvent.cast(2L, 200L, 20L));
+        journal.destroy();
+
+        // Another node added a vote on poll 1 while this one was down
+        columns.put(1L, Map.of(100L, 2L));
+        columns.put(2L, Map.of(200L, 1L));
+        journal = start();
+
+        assertThat(tallies.get(1L)).containsExactlyEntriesOf(Map.of(100L, 2L));
+        assertThat(voterSets).containsOnlyKeys(2L);
+        journal.destroy();
+    }
+
+    @Test
+    void journalWithoutCleanMarkerIsRebuilt() throws SQLException {
+        VoteJournal crashed = start();
+        crashed.onVote(VoteEvent.cast(1L, 100L, 10L));
+        crashed.onVote(VoteEvent.deleted(1L, 100L, 10L));
+        // No destroy(): the delete may not have been journaled before a crash
+
+        columns.put(1L, Map.of(100L, 1L));
+        VoteJournal journal = start(new long[] {1, 100, 10});
+
+        verify(statement).executeQuery(anyString());
+        assertThat(voterSets).containsExactlyEntriesOf(Map.of(1L, Set.of(10L)));
+        journal.destroy();
+    }
+
+    @Test
+    void fullSegmentsRollOver() throws IOException {
+        VoteJournal journal = start();
+        for (long userId = 1; userId <= 10; userId++) {
+            journal.onVote(VoteEvent.cast(1L, 100L, userId));
+        }
+
+        // The (empty) rebuilt base, 4 + 4 sealed, 2 in the live segment
+        assertThat(segmentFiles()).hasSize(4);
+        journal.destroy();
+
+        columns.put(1L, Map.of(100L, 10L));
+        journal = start();
+
+        assertThat(voterSets.get(1L)).hasSize(10);
+        journal.destroy();
+    }
+
+    @Test
+    void compactionKeepsTheSameStateAndIsIdempotent() throws IOException {
+        VoteJournal journal = start();
+        for (long userId = 1; userId <= 10; userId++) {
+            journal.onVote(VoteEvent.cast(1L, 100L + userId % 2, userId));
+        }
+        journal.onVote(VoteEvent.deleted(1L, 101L, 1L));
+        journal.onVote(VoteEvent.deleted(1L, 100L, 2L));
+        journal.onVote(VoteEvent.cast(2L, 200L, 20L));
+
+        journal.compact();
+        List<Path> once = segmentFiles();
+        journal.compact();
+        List<Path> twice = segmentFiles();
+        journal.destroy();
+
+        // Sealed segments folded into one, plus the live segment each time
+        assertThat(once).hasSize(2);
+        assertThat(twice).hasSize(2);
+        assertThat(twice.get(0)).isEqualTo(once.get(1));
+
+        columns.put(1L, Map.of(100L, 4L, 101L, 4L));
+        columns.put(2L, Map.of(200L, 1L));
+        journal = start();
+
+        assertThat(voterSets).containsOnly(
+                Map.entry(1L, Set.of(3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L)),
+                Map.entry(2L, Set.of(20L)));
+        journal.destroy();
+    }
+
+    @Test
+    void compactionWaitsForEnoughSegments() throws IOException {
+        compactMinSegments = 4;
+        VoteJournal journal = start();
+        journal.onVote(VoteEvent.cast(1L, 100L, 1L));
+        List<Path> before = segmentFiles();
+
+        journal.compact();
+
+        assertThat(segmentFiles()).isEqualTo(before).hasSize(2);
+        journal.destroy();
+    }
+
+    // ================= HARNESS =================
+
+    // Starts a journal over dir; rows are the votes table as (poll, option, user)
+    private VoteJournal start(long[]... rows) {
+        voterSets = new HashMap<>();
+        tallies = new HashMap<>();
+
+        VoteTallyEngine engine = mock(VoteTallyEngine.class);
+        when(engine.loadCounts(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> pollIds = invocation.getArgument(0);
+            Map<Long, Map<Long, Long>> counts = new HashMap<>();
+            pollIds.stream().filter(columns::containsKey).forEach(id -> counts.put(id, columns.get(id)));
+            return counts;
+        });
+        doAnswer(invocation -> tallies.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(engine).restore(anyLong(), any());
+
+        VoterRegistry registry = mock(VoterRegistry.class);
+        doAnswer(invocation -> {
+            long[] userIds = invocation.getArgument(1);
+            return voterSets.put(invocation.getArgument(0),
+                    Arrays.stream(userIds).boxed().collect(Collectors.toSet()));
+        }).when(registry).restore(anyLong(), any());
+
+        VoteJournal journal = new VoteJournal(engine, registry, votesTable(rows),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), dir.toString(),
+                DataSize.ofBytes((long) JournalRecord.SIZE * RECORDS_PER_SEGMENT), compactMinSegments, 3_600_000L, 500);
+        journal.afterSingletonsInstantiated();
+        return journal;
+    }
+
+    private DataSource votesTable(long[]... rows) {
+        dataSource = mock(DataSource.class);
+        statement = mock(Statement.class);
+        try {
+            Connection connection = mock(Connection.class);
+            ResultSet resultSet = mock(ResultSet.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.createStatement()).thenReturn(statement);
+            when(statement.executeQuery(anyString())).thenReturn(resultSet);
+
+            AtomicInteger row = new AtomicInteger(-1);
+            when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() < rows.length);
+            when(resultSet.getLong(eq(1))).thenAnswer(invocation -> rows[row.get()][0]);
+            when(resultSet.getLong(eq(2))).thenAnswer(invocation -> rows[row.get()][1]);
+            when(resultSet.getLong(eq(3))).thenAnswer(invocation -> rows[row.get()][2]);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.polls.pojos.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Relays events written straight into a throwaway schema. Needs a PostgreSQL
+// database, so it only runs when SPRING_DATASOURCE_URL is set.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class OutboxRelayTest {
+
+    private static final String SCHEMA = "outbox_relay_" + System.nanoTime();
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        String url = System.getenv("SPRING_DATASOURCE_URL");
+        String username = System.getenv("SPRING_DATASOURCE_USERNAME");
+        String password = System.getenv("SPRING_DATASOURCE_PASSWORD");
+
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .load()
+                .migrate();
+
+        dataSource = new DriverManagerDataSource(url, username, password);
+        dataSource.setSchema(SCHEMA);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @BeforeEach
+    void emptyOutbox() {
+        jdbcTemplate.execute("TRUNCATE event_outbox, outbox_offsets");
+    }
+
+    @Test
+    void deliversInCommitOrderOnceEarlierTransactionsFinish() throws SQLException {
+        Recorder consumer = new Recorder("test", true);
+        OutboxRelay relay = relay(consumer, 10);
+
+        try (Connection slow = dataSource.getConnection()) {
+            slow.setAutoCommit(false);
+            // Takes its transaction id before the next event is written
+            slow.createStatement().execute("SELECT pg_current_xact_id()");
+
+            long committedFirst = insertCommitted(2L);
+            relay.tick();
+            // Held back: the slow transaction could still commit below it
+            assertThat(consumer.batches).isEmpty();
+
+            long committedLast = insert(slow, 1L, false);
+            slow.commit();
+            relay.tick();
+
+            // Lower transaction id first, whatever the ids say
+            assertThat(committedLast).isGreaterThan(committedFirst);
+            assertThat(consumer.batches).containsExactly(List.of(committedLast, committedFirst));
+        }
+    }
+
+    @Test
+    void failedBatchIsDeliveredAgain() throws SQLException {
+        Recorder consumer = new Recorder("test", true);
+        consumer.failures = 1;
+        OutboxRelay relay = relay(consumer, 2);
+        long first = insertCommitted(1L);
+        long second = insertCommitted(1L);
+        long third = insertCommitted(1L);
+
+        relay.tick();
+        relay.tick();
+        relay.tick();
+
+        assertThat(consumer.batches).containsExactly(
+                List.of(first, second),
+                List.of(first, second),
+                List.of(third));
+        assertThat(jdbcTemplate.queryForObject("SELECT last_id FROM outbox_offsets WHERE consumer = 'test'",
+                Long.class)).isEqualTo(third);
+    }
+
+    @Test
+    void restartedConsumerResumesFromItsOffset() throws SQLException {
+        Recorder beforeRestart = new Recorder("remote-changes@node-a", false);
+        OutboxRelay relay = relay(beforeRestart, 10);
+        // Committed before the consumer first registered: not replayed
+        insertCommitted(1L);
+        relay.tick();
+        long seen = insertCommitted(1L);
+        relay.tick();
+        assertThat(beforeRestart.batches).containsExactly(List.of(seen));
+
+        // Written while the node is down
+        long missed = insertCommitted(1L);
+
+        Recorder afterRestart = new Recorder("remote-changes@node-a", false);
+        relay(afterRestart, 10).tick();
+
+        assertThat(afterRestart.batches).containsExactly(List.of(missed));
+    }
+
+    // ================= HARNESS =================
+
+    private static OutboxRelay relay(OutboxConsumer consumer, int batchSize) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<OutboxConsumer> consumers = mock(ObjectProvider.class);
+        when(consumers.orderedStream()).thenReturn(Stream.of(consumer));
+        return new OutboxRelay(jdbcTemplate, new DataSourceTransactionManager(dataSource), consumers,
+                new SimpleMeterRegistry(), true, batchSize, 10, 600_000L, 3_600_000L);
+    }
+
+    private static long insertCommitted(long pollId) throws SQLException {
+        return insert(dataSource.getConnection(), pollId, true);
+    }
+
+    // Returns the event id; closes the connection when asked to
+    private static long insert(Connection connection, long pollId, boolean close) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO event_outbox "
+                + "(event_type, poll_id, option_id, user_id, origin) VALUES ('VOTE_CAST', ?, 1, 1, 'node-b') "
+                + "RETURNING id")) {
+            ps.setLong(1, pollId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } finally {
+            if (close) {
+                connection.close();
+            }
+        }
+    }
+
+    private static final class Recorder implements OutboxConsumer {
+
+        private final String name;
+        private final boolean replayRetained;
+        private final List<List<Long>> batches = new ArrayList<>();
+        private int failures;
+
+        Recorder(String name, boolean replayRetained) {
+            this.name = name;
+            this.replayRetained = replayRetained;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean replayRetained() {
+            return replayRetained;
+        }
+
+        @Override
+        public void handle(List<OutboxEvent> events) {
+            batches.add(events.stream().map(OutboxEvent::id).toList());
+            if (failures-- > 0) {
+                throw new IllegalStateException("consumer failed");
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.polls.pojos.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.polls.pojos.event.PollEvent;
+import com.polls.pojos.event.VoteEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Writes events through real transactions into a throwaway schema. Needs a
+// PostgreSQL database, so it only runs when SPRING_DATASOURCE_URL is set.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class OutboxWriterTest {
+
+    private static final String SCHEMA = "outbox_writer_" + System.nanoTime();
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static DataSourceTransactionManager transactionManager;
+
+    @BeforeAll
+    static void migrate() {
+        String url = System.getenv("SPRING_DATASOURCE_URL");
+        String username = System.getenv("SPRING_DATASOURCE_USERNAME");
+        String password = System.getenv("SPRING_DATASOURCE_PASSWORD");
+
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .load()
+                .migrate();
+
+        dataSource = new DriverManagerDataSource(url, username, password);
+        dataSource.setSchema(SCHEMA);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @BeforeEach
+    void emptyOutbox() {
+        jdbcTemplate.execute("TRUNCATE event_outbox");
+    }
+
+    @Test
+    void writesATransactionsEventsWithOneStatementAtCommit() {
+        JdbcTemplate counting = spy(jdbcTemplate);
+        OutboxWriter writer = new OutboxWriter(counting, new SimpleMeterRegistry(), true, "node-a");
+        LocalDateTime expiry = LocalDateTime.of(2030, 1, 2, 3, 4, 5);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            writer.onVote(VoteEvent.cast(1L, 10L, 100L));
+            writer.onVote(VoteEvent.deleted(1L, 11L, 101L));
+            writer.onPollChange(new PollEvent(PollEvent.Type.EXPIRY_UPDATED, 1L, expiry));
+            assertThat(outbox()).isEmpty();
+        });
+
+        verify(counting, times(1)).update(any(PreparedStatementCreator.class));
+        List<Map<String, Object>> rows = outbox();
+        assertThat(rows).extracting(row -> row.get("event_type"))
+                .containsExactly("VOTE_CAST", "VOTE_DELETED", "POLL_EXPIRY_UPDATED");
+        assertThat(rows).extracting(row -> row.get("user_id")).containsExactly(100L, 101L, null);
+        assertThat(rows.get(2).get("expiry_time")).isEqualTo(java.sql.Timestamp.valueOf(expiry));
+        assertThat(rows).extracting(row -> row.get("origin")).containsOnly("node-a");
+        assertThat(rows).extracting(row -> row.get("xact_id").toString()).containsOnly(
+                rows.get(0).get("xact_id").toString());
+    }
+
+    @Test
+    void rolledBackTransactionLeavesNoEvents() {
+        OutboxWriter writer = new OutboxWriter(jdbcTemplate, new SimpleMeterRegistry(), true, "node-a");
+
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            writer.onVote(VoteEvent.cast(1L, 10L, 100L));
+            throw new IllegalStateException("rolled back");
+        })).hasMessage("rolled back");
+
+        assertThat(outbox()).isEmpty();
+    }
+
+    @Test
+    void innerTransactionKeepsItsOwnBatch() {
+        OutboxWriter writer = new OutboxWriter(jdbcTemplate, new SimpleMeterRegistry(), true, "node-a");
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            writer.onVote(VoteEvent.cast(1L, 10L, 100L));
+            requiresNew.executeWithoutResult(inner -> writer.onVote(VoteEvent.cast(2L, 20L, 200L)));
+            writer.onVote(VoteEvent.cast(3L, 30L, 300L));
+        });
+
+        List<Map<String, Object>> rows = outbox();
+        // The inner transaction commits first
+        assertThat(rows).extracting(row -> row.get("poll_id")).containsExactly(2L, 1L, 3L);
+        assertThat(rows.get(1).get("xact_id").toString()).isEqualTo(rows.get(2).get("xact_id").toString())
+                .isNotEqualTo(rows.get(0).get("xact_id").toString());
+    }
+
+    @Test
+    void originIsTheConfiguredNodeNameOrTheHostName() {
+        assertThat(new OutboxWriter(jdbcTemplate, new SimpleMeterRegistry(), true, " node-a ").origin())
+                .isEqualTo("node-a");
+        assertThat(new OutboxWriter(jdbcTemplate, new SimpleMeterRegistry(), true, "").origin()).isNotBlank();
+        assertThatThrownBy(() -> new OutboxWriter(jdbcTemplate, new SimpleMeterRegistry(), true, "n".repeat(65)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<Map<String, Object>> outbox() {
+        return jdbcTemplate.queryForList("SELECT * FROM event_outbox ORDER BY id");
+    }
+}
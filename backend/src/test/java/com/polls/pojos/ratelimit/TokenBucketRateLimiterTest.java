@@ -0,0 +1,139 @@
+package com.polls.pojos.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.polls.pojos.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenBucketRateLimiterTest {
+
+    // Arbitrary origin: System.nanoTime() may be negative
+    private final AtomicLong clock = new AtomicLong(-1_000_000_000_000L);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fullBucketAllowsTheBurstThenRejects() {
+        RateLimiter limiter = limiter(5, 1);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("a")).as("permit %d", i).isZero();
+        }
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        // Other keys have their own bucket
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(meterRegistry.get("polls.ratelimit.rejected").tag("limiter", "test").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void refillsAtTheSustainedRate() {
+        RateLimiter limiter = limiter(2, 10);
+        drain(limiter, "a", 2);
+
+        advanceMillis(99);
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        advanceMillis(1);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        // Never refills past capacity
+        advanceMillis(10_000);
+        drain(limiter, "a", 2);
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void rejectionReportsTheWaitAndConsumesNothing() {
+        RateLimiter limiter = limiter(1, 0.5);
+        drain(limiter, "a", 1);
+
+        assertThat(limiter.tryAcquire("a")).isEqualTo(2_000);
+        advanceMillis(500);
+        assertThat(limiter.tryAcquire("a")).isEqualTo(1_500);
+        advanceMillis(1_500);
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void acquireThrowsWithRetryAfterRoundedUpToSeconds() {
+        RateLimiter limiter = limiter(1, 0.4);
+        limiter.acquire("a");
+
+        assertThatThrownBy(() -> limiter.acquire("a"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(3));
+        advanceMillis(2_001);
+        // 499ms left still asks for a whole second
+        assertThatThrownBy(() -> limiter.acquire("a"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+    }
+
+    @Test
+    void releaseGivesBackOnePermitButNeverOverfills() {
+        RateLimiter limiter = limiter(2, 1);
+        drain(limiter, "a", 2);
+
+        limiter.release("a");
+        drain(limiter, "a", 1);
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        // A full bucket stays at capacity
+        advanceMillis(10_000);
+        limiter.release("a");
+        limiter.release("unknown");
+        drain(limiter, "a", 2);
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void evictIdleDropsOnlyFullBuckets() {
+        RateLimiter limiter = limiter(2, 1);
+        drain(limiter, "drained", 1);
+        advanceMillis(1_000);
+        drain(limiter, "partial", 1);
+
+        // "drained" is full again exactly now, "partial" one second from now
+        limiter.evictIdle();
+        assertThat(keys()).isEqualTo(1);
+
+        advanceMillis(1_000);
+        limiter.evictIdle();
+        assertThat(keys()).isZero();
+
+        // An evicted key starts again with a full bucket
+        drain(limiter, "drained", 2);
+    }
+
+    @Test
+    void rejectsMeaninglessLimits() {
+        assertThatThrownBy(() -> limiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> limiter(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RateLimiter limiter(int capacity, double permitsPerSecond) {
+        return new TokenBucketRateLimiter("test", capacity, permitsPerSecond, meterRegistry, clock::get);
+    }
+
+    private static void drain(RateLimiter limiter, String key, int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertThat(limiter.tryAcquire(key)).as("%s permit %d", key, i).isZero();
+        }
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private double keys() {
+        return meterRegistry.get("polls.ratelimit.keys").tag("limiter", "test").gauge().value();
+    }
+}
@@ -0,0 +1,68 @@
+package com.polls.pojos.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.polls.pojos.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VoteRateLimitsTest {
+
+    // Frozen: nothing refills during a test
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RateLimiter userLimiter = limiter("user", 2);
+    private final RateLimiter ipLimiter = limiter("ip", 2);
+    private final RateLimiter pollLimiter = limiter("poll", 1);
+
+    private final VoteRateLimits limits = new VoteRateLimits(userLimiter, ipLimiter, pollLimiter);
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectionByThePollLimitCostsTheUserAndIpNothing() {
+        limits.acquire(1L, "10.0.0.1");
+
+        assertThatThrownBy(() -> limits.acquire(1L, "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+
+        // Still one user and one IP permit left for another poll
+        limits.acquire(2L, "10.0.0.1");
+        assertThat(userLimiter.tryAcquire("alice")).isPositive();
+        assertThat(ipLimiter.tryAcquire("10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void rejectionByTheIpLimitCostsTheUserNothing() {
+        limits.acquire(1L, "10.0.0.1");
+        ipLimiter.tryAcquire("10.0.0.1");
+
+        assertThatThrownBy(() -> limits.acquire(2L, "10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+
+        // The user permit came back; the poll limit was never reached
+        limits.acquire(2L, "10.0.0.2");
+        assertThat(userLimiter.tryAcquire("alice")).isPositive();
+    }
+
+    private TokenBucketRateLimiter limiter(String name, int capacity) {
+        return new TokenBucketRateLimiter(name, capacity, 1, meterRegistry, clock::get);
+    }
+}
@@ -0,0 +1,136 @@
+package com.polls.pojos.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+// Upgrades a schema as the application created it before the vote_count
+// columns existed: baselined at version 1, so V1 never runs and the later
+// migrations have to add the counters. Needs a PostgreSQL database, so it
+// only runs when SPRING_DATASOURCE_URL is set.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class BaselinedSchemaMigrationTest {
+
+    private final String schema = "baselined_" + System.nanoTime();
+    private final String url = System.getenv("SPRING_DATASOURCE_URL");
+    private final String username = System.getenv("SPRING_DATASOURCE_USERNAME");
+    private final String password = System.getenv("SPRING_DATASOURCE_PASSWORD");
+
+    @AfterEach
+    void dropSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+                Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        }
+    }
+
+    @Test
+    void addsMissingCountersAndCountsExistingVotes() throws SQLException {
+        createSchema(false);
+
+        migrate();
+
+        assertThat(counts("SELECT vote_count FROM polls ORDER BY id")).containsExactly(3L, 0L);
+        assertThat(counts("SELECT vote_count FROM poll_options ORDER BY id")).containsExactly(2L, 1L, 0L);
+    }
+
+    @Test
+    void leavesExistingCountersAlone() throws SQLException {
+        createSchema(true);
+        // Deliberately off, to show the migration does not recount
+        execute("UPDATE polls SET vote_count = 7 WHERE id = 1");
+
+        migrate();
+
+        assertThat(counts("SELECT vote_count FROM polls ORDER BY id")).containsExactly(7L, 0L);
+        assertThat(counts("SELECT vote_count FROM poll_options ORDER BY id")).containsExactly(0L, 0L, 0L);
+    }
+
+    private void createSchema(boolean withCounters) throws SQLException {
+        String counter = withCounters ? "vote_count bigint DEFAULT 0 NOT NULL," : "";
+        execute("CREATE SCHEMA " + schema);
+        execute("""
+                CREATE TABLE users (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    username varchar(255) NOT NULL UNIQUE, email varchar(255) NOT NULL UNIQUE,
+                    password varchar(255) NOT NULL, role varchar(255) NOT NULL,
+                    created_at timestamp(6))
+                """);
+        execute("""
+                CREATE TABLE polls (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    question varchar(500) NOT NULL, expiry_time timestamp(6),
+                    closed boolean NOT NULL, created_at timestamp(6) NOT NULL, %s
+                    created_by bigint NOT NULL REFERENCES users (id))
+                """.formatted(counter));
+        execute("""
+                CREATE TABLE poll_options (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    option_text varchar(255) NOT NULL, %s
+                    poll_id bigint NOT NULL REFERENCES polls (id))
+                """.formatted(counter));
+        execute("""
+                CREATE TABLE votes (
+                    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    voted_at timestamp(6),
+                    poll_id bigint NOT NULL REFERENCES polls (id),
+                    option_id bigint NOT NULL REFERENCES poll_options (id),
+                    user_id bigint NOT NULL REFERENCES users (id),
+                    UNIQUE (poll_id, user_id))
+                """);
+
+        execute("""
+                INSERT INTO users (id, username, email, password, role)
+                SELECT g, 'user' || g, 'user' || g || '@example.com', 'x', 'USER'
+                FROM generate_series(1, 3) g
+                """);
+        execute("INSERT INTO polls (id, question, closed, created_at, created_by) "
+                + "VALUES (1, 'first', false, localtimestamp, 1), (2, 'second', false, localtimestamp, 1)");
+        execute("INSERT INTO poll_options (id, option_text, poll_id) "
+                + "VALUES (1, 'a', 1), (2, 'b', 1), (3, 'c', 2)");
+        execute("INSERT INTO votes (poll_id, option_id, user_id) VALUES (1, 1, 1), (1, 1, 2), (1, 2, 3)");
+    }
+
+    private void migrate() {
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(schema)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+                Statement st = connection.createStatement()) {
+            st.execute("SET search_path TO " + schema);
+            st.execute(sql);
+        }
+    }
+
+    private List<Long> counts(String sql) throws SQLException {
+        List<Long> counts = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+                Statement st = connection.createStatement()) {
+            st.execute("SET search_path TO " + schema);
+            try (ResultSet rs = st.executeQuery(sql)) {
+                while (rs.next()) {
+                    counts.add(rs.getLong(1));
+                }
+            }
+        }
+        return counts;
+    }
+}
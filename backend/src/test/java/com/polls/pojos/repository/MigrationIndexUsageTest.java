@@ -0,0 +1,171 @@
+package com.polls.pojos.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+// Runs the migrations into a throwaway schema, seeds it and checks with
+// EXPLAIN that each hot query is planned on the index meant for it. Needs a
+// PostgreSQL database, so it only runs when SPRING_DATASOURCE_URL is set.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class MigrationIndexUsageTest {
+
+    private static final String SCHEMA = "index_usage_" + System.nanoTime();
+
+    // Partition names in plan lines such as "Index Scan using ... on votes_p07 votes_1"
+    private static final Pattern PARTITION = Pattern.compile(" on (votes_p\\d+)\\b");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        String url = System.getenv("SPRING_DATASOURCE_URL");
+        String username = System.getenv("SPRING_DATASOURCE_USERNAME");
+        String password = System.getenv("SPRING_DATASOURCE_PASSWORD");
+
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(url, username, password);
+        try (Statement st = connection.createStatement()) {
+            st.execute("SET search_path TO " + SCHEMA);
+
+            // 2,000 users, 10 polls each, 4 options per poll, 25 votes per user
+            st.execute("""
+                    INSERT INTO users (id, username, email, password, role, created_at)
+                    SELECT g, 'user' || g, 'user' || g || '@example.com', 'x', 'USER', localtimestamp
+                    FROM generate_series(1, 2000) g
+                    """);
+            st.execute("""
+                    INSERT INTO polls (id, question, expiry_time, closed, created_at, vote_count, created_by)
+                    SELECT g, 'question ' || g,
+                           localtimestamp + (g % 1000 - 500) * interval '1 minute',
+                           g % 3 = 0, localtimestamp, 0, 1 + g % 2000
+                    FROM generate_series(1, 20000) g
+                    """);
+            st.execute("""
+                    INSERT INTO poll_options (id, option_text, vote_count, poll_id)
+                    SELECT g, 'option ' || g, 0, (g - 1) / 4 + 1
+                    FROM generate_series(1, 80000) g
+                    """);
+            st.execute("""
+                    INSERT INTO votes (id, voted_at, poll_id, option_id, user_id)
+                    SELECT row_number() OVER (), localtimestamp, p.poll_id,
+                           (p.poll_id - 1) * 4 + 1 + u % 4, u
+                    FROM generate_series(1, 2000) u,
+                         generate_series(0, 24) k,
+                         LATERAL (SELECT (u * 37 + k * 101) % 20000 + 1 AS poll_id) p
+                    """);
+            st.execute("VACUUM ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        } finally {
+            connection.close();
+        }
+    }
+
+    // votes is hash-partitioned on poll_id: per-poll queries must touch a
+    // single partition, through that partition's copy of the index
+
+    @Test
+    void pollTallyUsesPollOptionIndexOfOnePartition() throws SQLException {
+        String plan = explain("SELECT option_id, COUNT(*) FROM votes WHERE poll_id = 42 GROUP BY option_id");
+        assertThat(plan).containsPattern("Index Only Scan using votes_p\\d+_poll_id_option_id_idx");
+        assertThat(partitionsScanned(plan)).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateCheckTouchesOnePartition() throws SQLException {
+        String plan = explain("SELECT 1 FROM votes WHERE poll_id = 42 AND user_id = 7");
+        // Both the unique key and the (user_id, poll_id) index cover this lookup;
+        // which one the planner picks depends on statistics
+        assertThat(plan).containsPattern("votes_p\\d+_(poll_id_user_id_key|user_id_poll_id_idx)");
+        assertThat(partitionsScanned(plan)).isEqualTo(1);
+    }
+
+    @Test
+    void voteDeleteTouchesOnePartition() throws SQLException {
+        assertThat(partitionsScanned(explain("DELETE FROM votes WHERE poll_id = 42 AND user_id = 7 "
+                + "RETURNING option_id"))).isEqualTo(1);
+    }
+
+    @Test
+    void votedPollsUsesUserPollIndex() throws SQLException {
+        assertThat(explain("SELECT poll_id FROM votes WHERE user_id = 7 AND poll_id < 15000 "
+                + "ORDER BY poll_id DESC LIMIT 21"))
+                .containsPattern("votes_p\\d+_user_id_poll_id_idx");
+    }
+
+    @Test
+    void myPollsUsesCreatedByIndex() throws SQLException {
+        assertThat(explain("SELECT id, question FROM polls WHERE created_by = 7 AND id < 15000 "
+                + "ORDER BY id DESC LIMIT 21"))
+                .contains("idx_polls_created_by_id");
+    }
+
+    @Test
+    void expirySweepUsesPartialOpenExpiryIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM polls WHERE NOT closed AND expiry_time <= localtimestamp "
+                + "ORDER BY expiry_time LIMIT 500"))
+                .contains("idx_polls_open_expiry");
+        // JPQL renders the predicate as closed = false
+        assertThat(explain("SELECT id, expiry_time FROM polls WHERE closed = false "
+                + "AND expiry_time <= localtimestamp + interval '1 minute' ORDER BY expiry_time LIMIT 1000"))
+                .contains("idx_polls_open_expiry");
+    }
+
+    @Test
+    void archiverPickupUsesUnarchivedIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM polls WHERE closed AND archived_at IS NULL ORDER BY id LIMIT 100"))
+                .contains("idx_polls_unarchived");
+    }
+
+    @Test
+    void loginLookupUsesEmailIndex() throws SQLException {
+        assertThat(explain("SELECT * FROM users WHERE email = 'user7@example.com'"))
+                .contains("uk_users_email");
+    }
+
+    @Test
+    void feedOptionsUsePollIndex() throws SQLException {
+        assertThat(explain("SELECT id, option_text FROM poll_options WHERE poll_id IN (3, 5, 8) ORDER BY id"))
+                .contains("idx_poll_options_poll");
+    }
+
+    private static long partitionsScanned(String plan) {
+        return PARTITION.matcher(plan).results().map(m -> m.group(1)).distinct().count();
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement st = connection.createStatement();
+                ResultSet rs = st.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.polls.pojos.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class TokenRevocationsTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void revokeRejectsTokensIssuedUpToItAndReturnsTheTimeToStore() {
+        TokenRevocations revocations = new TokenRevocations(jdbcTemplate);
+
+        LocalDateTime revokedAt = revocations.revoke(7L);
+        long at = Timestamp.valueOf(revokedAt).getTime();
+
+        assertThat(revocations.isRevoked(7L, new Date(at - 1_000))).isTrue();
+        assertThat(revocations.isRevoked(7L, new Date(at))).isTrue();
+        assertThat(revocations.isRevoked(7L, new Date(at + 1_000))).isFalse();
+        assertThat(revocations.isRevoked(8L, new Date(at - 1_000))).isFalse();
+    }
+
+    @Test
+    void revokeInsideATransactionWaitsForTheCommit() {
+        TokenRevocations revocations = new TokenRevocations(jdbcTemplate);
+
+        TransactionSynchronizationManager.initSynchronization();
+        long committed;
+        try {
+            committed = Timestamp.valueOf(revocations.revoke(7L)).getTime();
+            assertThat(revocations.isRevoked(7L, new Date(committed - 1_000))).isFalse();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(revocations.isRevoked(7L, new Date(committed - 1_000))).isTrue();
+    }
+
+    @Test
+    void revokeInARolledBackTransactionRevokesNothing() {
+        TokenRevocations revocations = new TokenRevocations(jdbcTemplate);
+
+        TransactionSynchronizationManager.initSynchronization();
+        long rolledBack;
+        try {
+            rolledBack = Timestamp.valueOf(revocations.revoke(7L)).getTime();
+            TransactionSynchronizationManager.getSynchronizations().forEach(
+                    sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(revocations.isRevoked(7L, new Date(rolledBack - 1_000))).isFalse();
+    }
+
+    @Test
+    void reloadPicksUpRevocationsStoredByOtherNodes() throws Exception {
+        long storedAt = System.currentTimeMillis() - 60_000;
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(9L);
+        when(row.getTimestamp(2)).thenReturn(new Timestamp(storedAt));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        TokenRevocations revocations = new TokenRevocations(jdbcTemplate);
+        assertThat(revocations.isRevoked(9L, new Date(storedAt - 1_000))).isFalse();
+
+        revocations.afterSingletonsInstantiated();
+
+        assertThat(revocations.isRevoked(9L, new Date(storedAt - 1_000))).isTrue();
+        assertThat(revocations.isRevoked(9L, new Date(storedAt + 1_000))).isFalse();
+    }
+
+    @Test
+    void olderStoredTimeDoesNotUndoANewerLocalRevocation() throws Exception {
+        TokenRevocations revocations = new TokenRevocations(jdbcTemplate);
+        long at = Timestamp.valueOf(revocations.revoke(9L)).getTime();
+
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(9L);
+        when(row.getTimestamp(2)).thenReturn(new Timestamp(at - 60_000));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+        revocations.reload();
+
+        assertThat(revocations.isRevoked(9L, new Date(at - 1_000))).isTrue();
+    }
+
+    @Test
+    void failedReloadKeepsWhatIsKnown() {
+        TokenRevocations revocations = new TokenRevocations(jdbcTemplate);
+        long at = Timestamp.valueOf(revocations.revoke(3L)).getTime();
+        doAnswer(invocation -> {
+            throw new DataAccessResourceFailureException("database down");
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        revocations.reload();
+
+        assertThat(revocations.isRevoked(3L, new Date(at - 1_000))).isTrue();
+    }
+}
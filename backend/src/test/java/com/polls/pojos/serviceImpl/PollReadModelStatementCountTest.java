@@ -0,0 +1,170 @@
+package com.polls.pojos.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.polls.pojos.Poll;
+import com.polls.pojos.dto.PollResponseDTO;
+import com.polls.pojos.repository.PollOptionRepository;
+import com.polls.pojos.repository.PollRepository;
+import com.polls.pojos.repository.projection.PollSummaryView;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// The same reads as PollReadModelTest, against the real repositories and a
+// seeded throwaway schema, counting the statements Hibernate actually
+// prepares. Needs a PostgreSQL database, so it only runs when
+// SPRING_DATASOURCE_URL is set.
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class PollReadModelStatementCountTest {
+
+    private static final String SCHEMA = "read_model_" + System.nanoTime();
+
+    private static AnnotationConfigApplicationContext context;
+    private static Statistics statistics;
+    private static PollRepository pollRepository;
+    private static PollReadModel readModel;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        String url = System.getenv("SPRING_DATASOURCE_URL");
+        String username = System.getenv("SPRING_DATASOURCE_USERNAME");
+        String password = System.getenv("SPRING_DATASOURCE_PASSWORD");
+
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .load()
+                .migrate();
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(DataSource.class, () -> {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(url, username, password);
+            dataSource.setSchema(SCHEMA);
+            return dataSource;
+        });
+        context.register(JpaConfig.class);
+        context.refresh();
+
+        // 50 polls with 4 options each; 200 users voted on poll 1
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+        jdbcTemplate.execute("""
+                INSERT INTO users (id, username, email, password, role, created_at)
+                SELECT g, 'user' || g, 'user' || g || '@example.com', 'x', 'USER', localtimestamp
+                FROM generate_series(1, 200) g
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO polls (id, question, expiry_time, closed, created_at, vote_count, created_by)
+                SELECT g, 'question ' || g, localtimestamp + interval '1 day', false, localtimestamp,
+                       CASE WHEN g = 1 THEN 200 ELSE 0 END, 1 + g % 200
+                FROM generate_series(1, 50) g
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO poll_options (id, option_text, vote_count, poll_id)
+                SELECT g, 'option ' || g, CASE WHEN g <= 4 THEN 50 ELSE 0 END, (g - 1) / 4 + 1
+                FROM generate_series(1, 200) g
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO votes (voted_at, poll_id, option_id, user_id)
+                SELECT localtimestamp, 1, 1 + u % 4, u
+                FROM generate_series(1, 200) u
+                """);
+
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        pollRepository = context.getBean(PollRepository.class);
+        readModel = new PollReadModel(pollRepository, context.getBean(PollOptionRepository.class));
+    }
+
+    @AfterAll
+    static void dropSchema() {
+        if (context == null) {
+            return;
+        }
+        try {
+            new JdbcTemplate(context.getBean(DataSource.class)).execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+        } finally {
+            context.close();
+        }
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics.clear();
+    }
+
+    @Test
+    void singlePollTakesTwoStatementsRegardlessOfVoteVolume() {
+        PollResponseDTO dto = readModel.toDTO(readModel.findSummary(1L).orElseThrow());
+
+        assertThat(dto.getTotalVotes()).isEqualTo(200L);
+        assertThat(dto.getOptions()).extracting("voteCount").containsExactly(50L, 50L, 50L, 50L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void feedPageTakesTwoStatementsRegardlessOfPageSize() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PollSummaryView> rows = pollRepository.findFeedPage(Long.MAX_VALUE, null, "ALL",
+                now, now.plusHours(24), Limit.of(50));
+
+        List<PollResponseDTO> dtos = readModel.toDTOs(rows);
+
+        assertThat(dtos).hasSize(50).allSatisfy(dto -> assertThat(dto.getOptions()).hasSize(4));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = PollRepository.class)
+    static class JpaConfig {
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setPackagesToScan(Poll.class.getPackageName());
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            // Column names as Spring Boot maps them; no second-level cache, so
+            // every read has to reach the database
+            factory.setJpaPropertyMap(Map.of(
+                    AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy(),
+                    AvailableSettings.GENERATE_STATISTICS, true,
+                    AvailableSettings.USE_SECOND_LEVEL_CACHE, false,
+                    AvailableSettings.USE_QUERY_CACHE, false));
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+    }
+}
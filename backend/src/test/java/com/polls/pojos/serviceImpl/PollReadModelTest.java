@@ -0,0 +1,94 @@
+package com.polls.pojos.serviceImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.polls.pojos.dto.PollResponseDTO;
+import com.polls.pojos.repository.PollOptionRepository;
+import com.polls.pojos.repository.PollRepository;
+import com.polls.pojos.repository.projection.OptionView;
+import com.polls.pojos.repository.projection.PollSummaryView;
+
+// Every repository call here is exactly one SQL statement (flat projections,
+// nothing lazy), so counting calls counts statements.
+class PollReadModelTest {
+
+    private PollRepository pollRepository;
+    private PollOptionRepository pollOptionRepository;
+    private PollReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        pollRepository = mock(PollRepository.class);
+        pollOptionRepository = mock(PollOptionRepository.class);
+        readModel = new PollReadModel(pollRepository, pollOptionRepository);
+    }
+
+    @Test
+    void singlePollTakesTwoStatementsRegardlessOfVoteVolume() {
+        PollSummaryView poll = poll(1L, 200_000L);
+        // Built before stubbing: creating a mock inside thenReturn() is unfinished stubbing
+        List<OptionView> options = List.of(option(1L, 10L, 150_000L), option(1L, 11L, 50_000L));
+        when(pollRepository.findSummaryById(1L)).thenReturn(Optional.of(poll));
+        when(pollOptionRepository.findViewsByPollIds(anyCollection())).thenReturn(options);
+
+        PollResponseDTO dto = readModel.toDTO(readModel.findSummary(1L).orElseThrow());
+
+        assertThat(dto.getTotalVotes()).isEqualTo(200_000L);
+        assertThat(dto.getOptions()).extracting("voteCount").containsExactly(150_000L, 50_000L);
+
+        verify(pollRepository, times(1)).findSummaryById(1L);
+        verify(pollOptionRepository, times(1)).findViewsByPollIds(anyCollection());
+        verifyNoMoreInteractions(pollRepository, pollOptionRepository);
+    }
+
+    @Test
+    void pageOfPollsLoadsAllOptionsInOneStatement() {
+        List<PollSummaryView> polls = new ArrayList<>();
+        List<OptionView> options = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            polls.add(poll(id, 0L));
+            options.add(option(id, id * 10, 0L));
+            options.add(option(id, id * 10 + 1, 0L));
+        }
+        when(pollOptionRepository.findViewsByPollIds(anyCollection())).thenReturn(options);
+
+        List<PollResponseDTO> dtos = readModel.toDTOs(polls);
+
+        assertThat(dtos).hasSize(50).allSatisfy(dto -> assertThat(dto.getOptions()).hasSize(2));
+
+        verify(pollOptionRepository, times(1)).findViewsByPollIds(anyCollection());
+        verifyNoMoreInteractions(pollRepository, pollOptionRepository);
+    }
+
+    private static PollSummaryView poll(Long id, Long voteCount) {
+        PollSummaryView view = mock(PollSummaryView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getQuestion()).thenReturn("Question " + id);
+        when(view.getClosed()).thenReturn(false);
+        when(view.getCreatedBy()).thenReturn("alice");
+        when(view.getVoteCount()).thenReturn(voteCount);
+        return view;
+    }
+
+    private static OptionView option(Long pollId, Long id, Long voteCount) {
+        OptionView view = mock(OptionView.class);
+        when(view.getPollId()).thenReturn(pollId);
+        when(view.getId()).thenReturn(id);
+        when(view.getOptionText()).thenReturn("Option " + id);
+        when(view.getVoteCount()).thenReturn(voteCount);
+        return view;
+    }
+}
@@ -0,0 +1,125 @@
+package com.polls.pojos.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.polls.pojos.snapshot.TallySnapshot.PollState;
+
+class TallySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsCountsAndVoterSets() throws IOException {
+        Path file = dir.resolve("tallies.snapshot");
+        List<PollState> polls = List.of(
+                new PollState(1L, Map.of(10L, 3L, 11L, 0L), new long[] {7L, 3L, 5L}),
+                new PollState(2L, Map.of(20L, 1L), null),
+                new PollState(3L, Map.of(), new long[0]),
+                new PollState(Long.MAX_VALUE, Map.of(Long.MAX_VALUE, 1L << 40),
+                        new long[] {1L, Long.MAX_VALUE}));
+
+        new TallySnapshot(123_456_789L, 1_700_000_000_000L, polls).writeTo(file);
+        TallySnapshot read = TallySnapshot.readFrom(file);
+
+        assertThat(read.watermark()).isEqualTo(123_456_789L);
+        assertThat(read.writtenAt()).isEqualTo(1_700_000_000_000L);
+        assertThat(read.polls()).hasSize(4);
+
+        assertThat(read.polls().get(0).pollId()).isEqualTo(1L);
+        assertThat(read.polls().get(0).counts()).containsExactlyInAnyOrderEntriesOf(Map.of(10L, 3L, 11L, 0L));
+        // Voters come back sorted
+        assertThat(read.polls().get(0).voterIds()).containsExactly(3L, 5L, 7L);
+
+        // Not cached and cached-but-empty stay distinct
+        assertThat(read.polls().get(1).voterIds()).isNull();
+        assertThat(read.polls().get(2).voterIds()).isEmpty();
+
+        assertThat(read.polls().get(3).pollId()).isEqualTo(Long.MAX_VALUE);
+        assertThat(read.polls().get(3).counts()).containsExactlyEntriesOf(Map.of(Long.MAX_VALUE, 1L << 40));
+        assertThat(read.polls().get(3).voterIds()).containsExactly(1L, Long.MAX_VALUE);
+    }
+
+    @Test
+    void replacesThePreviousSnapshotWithoutLeavingTheTempFile() throws IOException {
+        Path file = dir.resolve("tallies.snapshot");
+        new TallySnapshot(1L, 1L, List.of(new PollState(1L, Map.of(1L, 1L), null))).writeTo(file);
+        new TallySnapshot(2L, 2L, List.of()).writeTo(file);
+
+        assertThat(TallySnapshot.readFrom(file).watermark()).isEqualTo(2L);
+        assertThat(TallySnapshot.readFrom(file).polls()).isEmpty();
+        try (var files = Files.list(dir)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void anyFlippedByteIsRejected() throws IOException {
+        Path file = dir.resolve("tallies.snapshot");
+        new TallySnapshot(99L, 5L, List.of(new PollState(4L, Map.of(40L, 2L), new long[] {8L, 9L})))
+                .writeTo(file);
+        byte[] written = Files.readAllBytes(file);
+
+        for (int i = 0; i < written.length; i++) {
+            byte[] torn = written.clone();
+            torn[i] ^= 0x01;
+            Files.write(file, torn);
+            assertThatThrownBy(() -> TallySnapshot.readFrom(file)).as("byte %d", i)
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = dir.resolve("tallies.snapshot");
+        new TallySnapshot(99L, 5L, List.of(new PollState(4L, Map.of(40L, 2L), new long[] {8L, 9L})))
+                .writeTo(file);
+        byte[] written = Files.readAllBytes(file);
+
+        for (int length = 0; length < written.length; length++) {
+            Files.write(file, Arrays.copyOf(written, length));
+            assertThatThrownBy(() -> TallySnapshot.readFrom(file)).as("length %d", length)
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void foreignFileWithValidChecksumIsRejected() throws IOException {
+        Path file = dir.resolve("tallies.snapshot");
+        Files.write(file, withChecksum(new byte[] {'P', 'O', 'L', 'S', 2, 0, 0, 0}));
+
+        assertThatThrownBy(() -> TallySnapshot.readFrom(file))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("version 1");
+    }
+
+    @Test
+    void bodyCutShortUnderAValidChecksumIsRejected() throws IOException {
+        Path file = dir.resolve("tallies.snapshot");
+        // Header claims one poll that is not there
+        Files.write(file, withChecksum(new byte[] {'P', 'O', 'L', 'S', 1, 0, 0, 1}));
+
+        assertThatThrownBy(() -> TallySnapshot.readFrom(file))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("truncated");
+    }
+
+    private static byte[] withChecksum(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return ByteBuffer.allocate(body.length + 4).put(body).putInt((int) crc.getValue()).array();
+    }
+}
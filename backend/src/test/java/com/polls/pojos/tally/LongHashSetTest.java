@@ -0,0 +1,126 @@
+package com.polls.pojos.tally;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+
+    // A new set of up to 8 elements has 16 slots
+    private static final int MASK = 15;
+
+    @Test
+    void addContainsAndRemove() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertThat(set.add(7L)).isTrue();
+        assertThat(set.add(7L)).isFalse();
+        assertThat(set.add(11L)).isTrue();
+
+        assertThat(set.contains(7L)).isTrue();
+        assertThat(set.contains(11L)).isTrue();
+        assertThat(set.contains(8L)).isFalse();
+        assertThat(set.size()).isEqualTo(2);
+
+        assertThat(set.remove(7L)).isTrue();
+        assertThat(set.remove(7L)).isFalse();
+        assertThat(set.contains(7L)).isFalse();
+        assertThat(set.contains(11L)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removingTheHeadOfACollisionChainKeepsTheRestReachable() {
+        long[] sameHome = valuesWithHome(3, 4);
+        LongHashSet set = new LongHashSet(4);
+        for (long value : sameHome) {
+            set.add(value);
+        }
+
+        set.remove(sameHome[0]);
+
+        assertThat(set.contains(sameHome[0])).isFalse();
+        for (int i = 1; i < sameHome.length; i++) {
+            assertThat(set.contains(sameHome[i])).isTrue();
+        }
+        assertThat(set.size()).isEqualTo(3);
+    }
+
+    @Test
+    void backwardShiftWrapsAroundTheEndOfTheTable() {
+        // Three values homed in the last slot fill slots 15, 0 and 1; a value
+        // homed in slot 0 is pushed to slot 2 behind them
+        long[] last = valuesWithHome(MASK, 3);
+        long first = valuesWithHome(0, 1)[0];
+        LongHashSet set = new LongHashSet(4);
+        for (long value : last) {
+            set.add(value);
+        }
+        set.add(first);
+
+        set.remove(last[0]);
+
+        assertThat(set.contains(last[1])).isTrue();
+        assertThat(set.contains(last[2])).isTrue();
+        assertThat(set.contains(first)).isTrue();
+
+        set.remove(last[1]);
+        set.remove(last[2]);
+
+        assertThat(set.contains(first)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeDoesNotMoveEntriesAboveTheirHome() {
+        // Slot 5 holds a value homed there; removing the value before it in
+        // slot 4 must leave it in place
+        long four = valuesWithHome(4, 1)[0];
+        long five = valuesWithHome(5, 1)[0];
+        LongHashSet set = new LongHashSet(4);
+        set.add(four);
+        set.add(five);
+
+        set.remove(four);
+
+        assertThat(set.contains(five)).isTrue();
+        assertThat(set.toArray()).containsExactly(five);
+    }
+
+    @Test
+    void matchesHashSetThroughGrowthAndRandomRemovals() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet(0);
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            long value = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+            } else {
+                assertThat(set.add(value)).isEqualTo(expected.add(value));
+            }
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        for (long value = 1; value <= 5_000; value++) {
+            assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+        }
+        assertThat(set.toArray()).containsExactlyInAnyOrder(expected.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    private static long[] valuesWithHome(int home, int count) {
+        long[] values = new long[count];
+        int found = 0;
+        for (long value = 1; found < count; value++) {
+            if (LongHashSet.index(value, MASK) == home) {
+                values[found++] = value;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,100 @@
+package com.polls.pojos.tally;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.polls.pojos.event.VoteEvent;
+import com.polls.pojos.repository.VoteRepository;
+
+class VoterRegistryTest {
+
+    private final VoteRepository voteRepository = mock(VoteRepository.class);
+
+    @Test
+    void loadsEachPollOnceAndFollowsVoteEvents() {
+        when(voteRepository.findVoterIds(1L)).thenReturn(List.of(10L, 11L));
+        VoterRegistry registry = new VoterRegistry(voteRepository, 1_000);
+
+        assertThat(registry.hasVoted(1L, 10L)).isTrue();
+        assertThat(registry.hasVoted(1L, 12L)).isFalse();
+
+        registry.onVote(VoteEvent.cast(1L, 100L, 12L));
+        registry.onVote(VoteEvent.deleted(1L, 100L, 10L));
+
+        assertThat(registry.hasVoted(1L, 12L)).isTrue();
+        assertThat(registry.hasVoted(1L, 10L)).isFalse();
+        verify(voteRepository, times(1)).findVoterIds(1L);
+    }
+
+    @Test
+    void eventsForUnloadedPollsAreIgnored() {
+        VoterRegistry registry = new VoterRegistry(voteRepository, 1_000);
+
+        registry.onVote(VoteEvent.cast(2L, 100L, 12L));
+
+        assertThat(registry.cachedVoterIds(2L)).isNull();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPollsUntilUnderTheLimit() throws InterruptedException {
+        when(voteRepository.findVoterIds(anyLong())).thenReturn(List.of(1L, 2L, 3L));
+        VoterRegistry registry = new VoterRegistry(voteRepository, 6);
+
+        registry.hasVoted(1L, 1L);
+        Thread.sleep(1);
+        registry.hasVoted(2L, 1L);
+        Thread.sleep(1);
+        registry.hasVoted(3L, 1L);
+        Thread.sleep(1);
+        registry.hasVoted(1L, 1L);
+
+        registry.evictColdPolls();
+
+        assertThat(registry.cachedVoterIds(2L)).isNull();
+        assertThat(registry.cachedVoterIds(1L)).isNotNull();
+        assertThat(registry.cachedVoterIds(3L)).isNotNull();
+    }
+
+    @Test
+    void evictionCompletesWhileRequestsKeepTouchingPolls() throws InterruptedException {
+        when(voteRepository.findVoterIds(anyLong())).thenReturn(List.of(1L));
+        VoterRegistry registry = new VoterRegistry(voteRepository, 100);
+        for (long pollId = 1; pollId <= 5_000; pollId++) {
+            registry.hasVoted(pollId, 1L);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread toucher = new Thread(() -> {
+            for (long pollId = 1; running.get(); pollId = pollId % 5_000 + 1) {
+                registry.hasVoted(pollId, 1L);
+            }
+        });
+        toucher.start();
+        try {
+            for (int round = 0; round < 20; round++) {
+                registry.evictColdPolls();
+            }
+        } finally {
+            running.set(false);
+            toucher.join();
+        }
+
+        registry.evictColdPolls();
+        long cached = 0;
+        for (long pollId = 1; pollId <= 5_000; pollId++) {
+            if (registry.cachedVoterIds(pollId) != null) {
+                cached++;
+            }
+        }
+        assertThat(cached).isLessThanOrEqualTo(100);
+    }
+}